@@ -0,0 +1,125 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import com.github.andrewazores.model.GavTokenizer;
+import com.github.andrewazores.model.GroupArtifactVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classification of command line and input file lines as URLs or GAVs, as done by {@link Main},
+ * compared with the previous approach of trying every input as a URL and matching GAVs with a
+ * regular expression once that fails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputClassificationBenchmark {
+
+    private static final Pattern GAV_PATTERN =
+            Pattern.compile(
+                    "^(?<group>[a-z0-9._-]+):(?<artifact>[a-z0-9._-]+)(?::(?<version>[a-z0-9._-]+))?$",
+                    Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+
+    @Param({"1000000"})
+    int inputs;
+
+    private List<String> gavs;
+    private List<String> mixed;
+
+    @Setup
+    public void setup() {
+        gavs = new ArrayList<>(inputs);
+        mixed = new ArrayList<>(inputs);
+        for (int i = 0; i < inputs; i++) {
+            var gav =
+                    i % 2 == 0
+                            ? String.format("org.example.group%d:artifact-%d:1.%d.0", i, i, i)
+                            : String.format("org.example.group%d:artifact-%d", i, i);
+            gavs.add(gav);
+            mixed.add(
+                    i % 10 == 0
+                            ? String.format("https://github.com/example/repo-%d/pull/%d", i, i)
+                            : gav);
+        }
+    }
+
+    @Benchmark
+    public void parseGavs(Blackhole bh) {
+        for (var gav : gavs) {
+            bh.consume(GavTokenizer.parse(gav));
+        }
+    }
+
+    @Benchmark
+    public void parseGavsRegex(Blackhole bh) {
+        for (var gav : gavs) {
+            bh.consume(regexParse(gav));
+        }
+    }
+
+    @Benchmark
+    public void classifyMixed(Blackhole bh) throws MalformedURLException {
+        for (var input : mixed) {
+            if (GavTokenizer.isUrl(input)) {
+                bh.consume(new URL(input));
+            } else {
+                bh.consume(GavTokenizer.parse(input));
+            }
+        }
+    }
+
+    @Benchmark
+    public void classifyMixedByException(Blackhole bh) {
+        for (var input : mixed) {
+            try {
+                bh.consume(new URL(input));
+            } catch (MalformedURLException e) {
+                bh.consume(regexParse(input));
+            }
+        }
+    }
+
+    private static GroupArtifactVersion regexParse(String gav) {
+        var matcher = GAV_PATTERN.matcher(gav);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(String.format("GAV %s was not parseable", gav));
+        }
+        return new GroupArtifactVersion(
+                matcher.group("group"), matcher.group("artifact"), matcher.group("version"));
+    }
+}
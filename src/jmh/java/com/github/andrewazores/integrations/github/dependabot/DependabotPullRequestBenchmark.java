@@ -0,0 +1,76 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github.dependabot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Extraction of GAVs from Dependabot Pull Request titles and (large) bodies. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DependabotPullRequestBenchmark {
+
+    private static final String TITLE =
+            "build(deps): bump io.netty:netty-bom from 4.1.108.Final to 4.1.111.Final";
+
+    @Param({"10", "1000"})
+    int updates;
+
+    private String body;
+
+    @Setup
+    public void setup() {
+        var sb = new StringBuilder();
+        for (int i = 0; i < updates; i++) {
+            sb.append(
+                    String.format(
+                            "Updates `org.example.group%d:artifact-%d` from 1.%d.0 to 1.%d.1\n",
+                            i, i, i, i));
+            sb.append(
+                    "Bumps the maven group with 1 update. Release notes, changelog and commits"
+                        + " follow.\n");
+        }
+        body = sb.toString();
+    }
+
+    @Benchmark
+    public Optional<GroupArtifactVersion> title() {
+        return GitHubDependabotPullRequestIntegration.parseTitle(TITLE);
+    }
+
+    @Benchmark
+    public List<GroupArtifactVersion> body() {
+        return GitHubDependabotPullRequestIntegration.parseBody(body);
+    }
+}
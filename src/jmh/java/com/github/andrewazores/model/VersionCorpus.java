@@ -0,0 +1,70 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Deterministic, realistically shaped version listings for benchmarks. */
+public final class VersionCorpus {
+
+    private VersionCorpus() {}
+
+    /**
+     * Generate {@code count} versions in repository (oldest-first) order. Releases are interleaved
+     * with pre-releases, {@code .Final} releases and downstream {@code .redhat-NNNNN} rebuilds.
+     */
+    public static List<String> versions(int count) {
+        var versions = new ArrayList<String>(count);
+        for (int major = 1; versions.size() < count; major++) {
+            for (int minor = 0; minor < 10 && versions.size() < count; minor++) {
+                for (int patch = 0; patch < 20 && versions.size() < count; patch++) {
+                    var base = String.format("%d.%d.%d", major, minor, patch);
+                    if (patch == 0) {
+                        versions.add(base + "-alpha1");
+                        versions.add(base + "-rc1");
+                    }
+                    versions.add(patch % 3 == 0 ? base + ".Final" : base);
+                    if (patch % 4 == 0) {
+                        for (int build = 1; build <= 3; build++) {
+                            versions.add(String.format("%s.redhat-%05d", base, build));
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(versions.subList(0, count));
+    }
+
+    /** Render a maven-metadata.xml document listing the given versions. */
+    public static String metadata(List<String> versions) {
+        var sb = new StringBuilder(64 + versions.size() * 40);
+        var latest = versions.get(versions.size() - 1);
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n")
+                .append("  <groupId>org.example</groupId>\n")
+                .append("  <artifactId>example</artifactId>\n")
+                .append("  <versioning>\n")
+                .append("    <latest>")
+                .append(latest)
+                .append("</latest>\n    <release>")
+                .append(latest)
+                .append("</release>\n    <versions>\n");
+        versions.forEach(v -> sb.append("      <version>").append(v).append("</version>\n"));
+        return sb.append("    </versions>\n    <lastUpdated>20240101000000</lastUpdated>\n")
+                .append("  </versioning>\n</metadata>\n")
+                .toString();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Version matching against large listings. {@code indexed*} benchmarks reuse one MavenVersioning,
+ * as a single check run does for every GAV of an artifact; {@code firstLookup} includes the cost of
+ * building the lookup index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionLookupBenchmark {
+
+    @Param({"100", "5000"})
+    int versions;
+
+    private List<String> listing;
+    private MavenVersioning versioning;
+    private String exact;
+    private String qualified;
+    private String missing;
+
+    @Setup
+    public void setup() {
+        // listings are held newest-first
+        listing = VersionCorpus.versions(versions);
+        Collections.reverse(listing);
+        versioning = new MavenVersioning("N/A", "N/A", listing);
+        // an unqualified release, the base of a set of .redhat rebuilds, and an absent version
+        exact = listing.get(listing.size() / 2).replace(".Final", "");
+        qualified = listing.stream().filter(v -> v.contains(".redhat-")).findFirst().orElseThrow();
+        qualified = qualified.substring(0, qualified.indexOf(".redhat-"));
+        missing = "0.0.1";
+    }
+
+    @Benchmark
+    public Optional<String> indexedExact() {
+        return versioning.bestMatch(exact);
+    }
+
+    @Benchmark
+    public Optional<String> indexedQualified() {
+        return versioning.bestMatch(qualified);
+    }
+
+    @Benchmark
+    public Optional<String> indexedMissing() {
+        return versioning.bestMatch(missing);
+    }
+
+    @Benchmark
+    public Optional<String> indexedNearest() {
+        return versioning.nearest(missing);
+    }
+
+    @Benchmark
+    public Optional<String> firstLookup() {
+        return new MavenVersioning("N/A", "N/A", listing).bestMatch(qualified);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.output;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.ProcessResult;
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.model.MavenVersioning;
+import com.github.andrewazores.model.VersionCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Rendering of 10k results by each output format. Log records are formatted in full and then
+ * discarded, so console throughput does not dominate the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dorg.jboss.logging.provider=jdk")
+public class ReporterBenchmark {
+
+    private static final int RESULTS = 10_000;
+    private static final String REPOSITORY = "https://repo.maven.apache.org/maven2";
+
+    @Param({"human", "json", "ndjson", "xml"})
+    String format;
+
+    private OutputReporter reporter;
+    private List<GroupArtifactVersion> gavs;
+    private List<ProcessResult> results;
+
+    @Setup
+    public void setup() {
+        var root = Logger.getLogger("");
+        for (var handler : root.getHandlers()) {
+            root.removeHandler(handler);
+        }
+        root.addHandler(new FormattingNullHandler());
+        root.setLevel(Level.INFO);
+
+        reporter =
+                switch (format) {
+                    case "human" -> new HumanReporter();
+                    case "json" -> {
+                        var r = new JsonReporter();
+                        r.mapper = new ObjectMapper();
+                        yield r;
+                    }
+                    case "ndjson" -> {
+                        var r = new NdjsonReporter();
+                        r.mapper = new ObjectMapper();
+                        yield r;
+                    }
+                    case "xml" -> new XmlReporter();
+                    default -> throw new IllegalArgumentException(format);
+                };
+
+        var listing = VersionCorpus.versions(50);
+        Collections.reverse(listing);
+        var versioning = new MavenVersioning(listing.get(0), listing.get(0), listing);
+        gavs = new ArrayList<>(RESULTS);
+        results = new ArrayList<>(RESULTS);
+        for (int i = 0; i < RESULTS; i++) {
+            var group = String.format("org.example.group%d", i % 100);
+            var artifact = String.format("artifact-%d", i);
+            switch (i % 3) {
+                case 0 -> {
+                    var match = listing.get(i % listing.size());
+                    gavs.add(new GroupArtifactVersion(group, artifact, match));
+                    results.add(
+                            new ProcessResult(
+                                    true,
+                                    true,
+                                    new MavenVersioning(match, match, List.of(match)),
+                                    REPOSITORY));
+                }
+                case 1 -> {
+                    gavs.add(new GroupArtifactVersion(group, artifact, "0.0.1"));
+                    results.add(new ProcessResult(true, false, versioning, REPOSITORY));
+                }
+                default -> {
+                    gavs.add(new GroupArtifactVersion(group, artifact, null));
+                    results.add(new ProcessResult(false, true, versioning, REPOSITORY));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void report() {
+        var report = reporter.start(REPOSITORY);
+        for (int i = 0; i < RESULTS; i++) {
+            report.accept(gavs.get(i), results.get(i));
+        }
+        report.finish();
+    }
+
+    private static class FormattingNullHandler extends Handler {
+        private final SimpleFormatter formatter = new SimpleFormatter();
+        private long chars;
+
+        @Override
+        public void publish(LogRecord record) {
+            chars += formatter.format(record).length();
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    }
+}
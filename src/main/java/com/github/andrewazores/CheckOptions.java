@@ -0,0 +1,45 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for a single {@link Processor} run.
+ *
+ * @param repositories Maven repository root URLs, in order of preference
+ * @param count the number of versions to report, or a non-positive value for all
+ * @param concurrency the maximum number of simultaneous repository requests
+ * @param ordered whether results are reported in input order rather than completion order
+ * @param hedgeDelay how long to wait for one repository to answer before also querying the next.
+ *     Zero queries every repository at once.
+ * @param insecure whether TLS validation is skipped for the repositories
+ */
+record CheckOptions(
+        List<String> repositories,
+        int count,
+        int concurrency,
+        boolean ordered,
+        Duration hedgeDelay,
+        boolean insecure) {
+    CheckOptions {
+        repositories = List.copyOf(repositories);
+        if (repositories.isEmpty()) {
+            throw new IllegalArgumentException("No repositories");
+        }
+    }
+}
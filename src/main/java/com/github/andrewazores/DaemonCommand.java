@@ -0,0 +1,167 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.andrewazores.daemon.DaemonProtocol;
+import com.github.andrewazores.output.OutputReporter;
+import io.quarkus.logging.Log;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+/**
+ * Background daemon which runs forwarded CLI invocations with warm caches and connections. It is
+ * spawned on demand by {@link com.github.andrewazores.daemon.DaemonClient} and exits once it has
+ * been idle for {@code maven-gav-checker.daemon.idle-timeout}.
+ */
+@Command(name = "daemon", hidden = true, description = "Run the background daemon.")
+public class DaemonCommand implements Callable<Integer> {
+
+    private static final Duration IDLE_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    @Option(names = "--socket", required = true, description = "The socket to listen on.")
+    private Path socket;
+
+    @ConfigProperty(name = "maven-gav-checker.daemon.idle-timeout")
+    Duration idleTimeout;
+
+    @Inject CommandLine.IFactory factory;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong lastActive = new AtomicLong(System.nanoTime());
+
+    @Override
+    public Integer call() throws Exception {
+        if (Files.exists(socket)) {
+            if (isListening(socket)) {
+                Log.infov("A daemon is already listening on {0}", socket);
+                return 0;
+            }
+            // left behind by a daemon that did not shut down cleanly
+            Files.delete(socket);
+        }
+        var counter = new AtomicInteger();
+        ExecutorService handlers =
+                Executors.newCachedThreadPool(
+                        r -> {
+                            var t =
+                                    new Thread(
+                                            r,
+                                            String.format("daemon-%d", counter.incrementAndGet()));
+                            t.setDaemon(true);
+                            return t;
+                        });
+        try (var server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+                var selector = Selector.open()) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            // accepts are polled, so that the loop can notice when the daemon has become idle
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            Log.infov("Listening on {0}", socket);
+            while (!isIdle()) {
+                selector.select(IDLE_CHECK_INTERVAL.toMillis());
+                selector.selectedKeys().clear();
+                SocketChannel accepted;
+                while ((accepted = server.accept()) != null) {
+                    // accepted channels are always blocking, whatever the server's mode
+                    var channel = accepted;
+                    active.incrementAndGet();
+                    handlers.execute(() -> handle(channel));
+                }
+            }
+            Log.infov("Idle for {0}, exiting", idleTimeout);
+        } finally {
+            handlers.shutdownNow();
+            Files.deleteIfExists(socket);
+        }
+        return 0;
+    }
+
+    private boolean isIdle() {
+        return active.get() == 0 && System.nanoTime() - lastActive.get() > idleTimeout.toNanos();
+    }
+
+    private static boolean isListening(Path socket) {
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(socket)).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void handle(SocketChannel channel) {
+        try (channel) {
+            var args =
+                    DaemonProtocol.readRequest(
+                            new DataInputStream(Channels.newInputStream(channel)));
+            Log.debugv("Running {0}", args);
+            var sink = new DaemonProtocol.Sink(Channels.newOutputStream(channel));
+            var commandLine = new CommandLine(Main.class, factory);
+            commandLine.setOut(new PrintWriter(sink.stdoutWriter(), true));
+            commandLine.setErr(new PrintWriter(sink.stderrWriter(), true));
+            Main main = commandLine.getCommand();
+            main.forwarded(
+                    new OutputReporter.Output() {
+                        @Override
+                        public void info(String message) {
+                            try {
+                                sink.stdout(message + "\n");
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+
+                        @Override
+                        public void warn(String message) {
+                            try {
+                                sink.stderr(message + "\n");
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }
+                    });
+            sink.exit(commandLine.execute(args.toArray(String[]::new)));
+        } catch (IOException | UncheckedIOException e) {
+            Log.debugv(e, "Lost connection to client");
+        } finally {
+            lastActive.set(System.nanoTime());
+            active.decrementAndGet();
+        }
+    }
+}
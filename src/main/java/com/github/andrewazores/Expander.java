@@ -0,0 +1,208 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+
+/**
+ * Runs the expansion of inputs into GAVs on a pool of threads, so that slow source integrations,
+ * such as those which run {@code gh} or {@code mvn}, overlap with each other and with checking.
+ *
+ * <p>In ordered mode GAVs are still emitted in input order: those of the earliest unfinished input
+ * pass straight through to the sink, while those of later inputs are held until every input before
+ * them has finished. Held inputs count towards the parallelism, so a slow input blocks reading
+ * further ahead rather than letting held GAVs accumulate. Released GAVs are passed to the sink by
+ * one thread at a time, without the monitor held, since the sink may block.
+ */
+final class Expander implements AutoCloseable {
+
+    @FunctionalInterface
+    interface Expansion {
+        void expand(Consumer<GroupArtifactVersion> sink) throws IOException, InterruptedException;
+    }
+
+    private final boolean ordered;
+    private final int parallelism;
+    private final Consumer<GroupArtifactVersion> sink;
+    private final ExecutorService executor;
+    private final Deque<Slot> open = new ArrayDeque<>();
+    private final Deque<GroupArtifactVersion> ready = new ArrayDeque<>();
+    private boolean draining;
+    private Throwable error;
+
+    Expander(int parallelism, boolean ordered, Consumer<GroupArtifactVersion> sink) {
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+        this.sink = sink;
+        this.executor = Processor.newExecutor("gav-expand", parallelism);
+    }
+
+    /** Emit a GAV named directly by an input, after those of any earlier inputs if ordered. */
+    void emit(GroupArtifactVersion gav) throws IOException, InterruptedException {
+        synchronized (this) {
+            if (ordered && !open.isEmpty()) {
+                var slot = admit();
+                slot.held.add(gav);
+                slot.done = true;
+                return;
+            }
+            if (ordered && draining) {
+                ready.add(gav);
+                return;
+            }
+        }
+        sink.accept(gav);
+    }
+
+    /**
+     * Run an expansion in the background, blocking while the maximum number of expansions are
+     * already unfinished. The first failure of any expansion is rethrown here or by {@link
+     * #await()}.
+     */
+    void submit(Expansion expansion) throws IOException, InterruptedException {
+        Slot slot;
+        synchronized (this) {
+            slot = admit();
+        }
+        executor.execute(
+                () -> {
+                    Throwable failure = null;
+                    try {
+                        expansion.expand(gav -> accept(slot, gav));
+                    } catch (Throwable t) {
+                        failure = t;
+                    }
+                    finish(slot, failure);
+                });
+    }
+
+    /** Wait for every submitted expansion to finish. */
+    synchronized void await() throws IOException, InterruptedException {
+        while ((!open.isEmpty() || draining) && error == null) {
+            wait();
+        }
+        if (error != null) {
+            Processor.rethrow(error);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /** Called with the monitor held. */
+    private Slot admit() throws IOException, InterruptedException {
+        while (open.size() >= parallelism && error == null) {
+            wait();
+        }
+        if (error != null) {
+            Processor.rethrow(error);
+        }
+        var slot = new Slot();
+        open.add(slot);
+        return slot;
+    }
+
+    private void accept(Slot slot, GroupArtifactVersion gav) {
+        if (ordered) {
+            synchronized (this) {
+                if (slot != open.peek()) {
+                    slot.held.add(gav);
+                    return;
+                }
+                if (draining) {
+                    // queue behind the released GAVs of the inputs before this one
+                    ready.add(gav);
+                    return;
+                }
+            }
+            // the head slot only changes once it finishes, which is on this thread
+        }
+        sink.accept(gav);
+    }
+
+    private void finish(Slot slot, Throwable failure) {
+        synchronized (this) {
+            if (failure != null && error == null) {
+                error = failure;
+            }
+            slot.done = true;
+            notifyAll();
+            if (!ordered) {
+                open.remove(slot);
+                return;
+            }
+            // release the held GAVs of every finished input at the head of the queue, and of the
+            // first unfinished one, which from now on emits directly once they are drained
+            while (!open.isEmpty() && open.peek().done) {
+                open.poll();
+                var head = open.peek();
+                if (head != null) {
+                    ready.addAll(head.held);
+                    head.held.clear();
+                }
+            }
+            if (draining || ready.isEmpty()) {
+                return;
+            }
+            draining = true;
+        }
+        drain();
+    }
+
+    /** Pass released GAVs to the sink in order, until none are left. */
+    private void drain() {
+        var batch = new ArrayList<GroupArtifactVersion>();
+        try {
+            while (true) {
+                synchronized (this) {
+                    if (ready.isEmpty()) {
+                        draining = false;
+                        notifyAll();
+                        return;
+                    }
+                    batch.addAll(ready);
+                    ready.clear();
+                }
+                batch.forEach(sink);
+                batch.clear();
+            }
+        } catch (RuntimeException | Error e) {
+            synchronized (this) {
+                if (error == null) {
+                    error = e;
+                }
+                draining = false;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Slot {
+        final List<GroupArtifactVersion> held = new ArrayList<>();
+        boolean done;
+    }
+}
@@ -15,47 +15,53 @@
  */
 package com.github.andrewazores;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.X509Certificate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.regex.Pattern;
-
-import javax.net.ssl.HttpsURLConnection;
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
+import java.util.function.Consumer;
 
+import com.github.andrewazores.daemon.DaemonClient;
+import com.github.andrewazores.integrations.ExpansionContext;
 import com.github.andrewazores.integrations.SourceIntegration;
+import com.github.andrewazores.integrations.UnrecognizedSourceException;
+import com.github.andrewazores.integrations.github.PullRequestService;
+import com.github.andrewazores.model.GavTokenizer;
 import com.github.andrewazores.model.GroupArtifactVersion;
 import com.github.andrewazores.output.OutputReporter;
 import io.quarkus.arc.All;
 import io.quarkus.logging.Log;
+import io.quarkus.picocli.runtime.annotations.TopCommand;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
+import picocli.CommandLine.Spec;
 
+@TopCommand
 @Command(
         name = "maven-gav-checker",
         mixinStandardHelpOptions = true,
         versionProvider = com.github.andrewazores.VersionProvider.class,
-        description = "Check Maven dependencies' availability in a particular Maven repository")
+        description = "Check Maven dependencies' availability in a particular Maven repository",
+        subcommands = {ServeCommand.class, DaemonCommand.class})
 public class Main implements Callable<Integer> {
 
-    private static final Pattern GAV_PATTERN =
-            Pattern.compile(
-                    "^(?<group>[a-z0-9._-]+):(?<artifact>[a-z0-9._-]+)(?::(?<version>[a-z0-9._-]+))?$",
-                    Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+    private static final String STDIN = "-";
 
     @Parameters(
             index = "0..*",
@@ -66,22 +72,44 @@ public class Main implements Callable<Integer> {
                         + " printed, otherwise the existence of the specified version is checked."
                         + " Rather than GAVs, these may also be URLs to pom.xml files, or GitHub"
                         + " Repositories, or GitHub Pull Requests, in which case the tool will"
-                        + " infer the relevant GAVs.")
+                        + " infer the relevant GAVs. A single '-' reads these inputs from standard"
+                        + " input instead, one per line.")
     private List<String> gavs;
 
+    @Option(
+            names = {"--input-file"},
+            description =
+                    "A file to read GAVs or URLs from, one per line. Blank lines and lines"
+                            + " starting with '#' are ignored. The file is read as checking"
+                            + " proceeds, so it may be arbitrarily large. This may be repeated.")
+    private List<Path> inputFiles = List.of();
+
     @Option(
             names = {"-r", "--repository"},
+            split = ",",
             description =
                     "The Maven repository root URL to search, ex."
-                        + " https://repo.maven.apache.org/maven2/ . If the configuration property"
-                        + " maven-gav-checker.maven-repository.url (or the environment variable"
-                        + " MAVEN_GAV_CHECKER_MAVEN_REPOSITORY_URL) is set, that will take"
-                        + " precedence over this option.",
+                        + " https://repo.maven.apache.org/maven2/ . This may be repeated, or given"
+                        + " as a comma-separated list, to search several repositories at once; each"
+                        + " GAV is reported from the first repository to confirm it. If the"
+                        + " configuration property maven-gav-checker.maven-repository.url (or the"
+                        + " environment variable MAVEN_GAV_CHECKER_MAVEN_REPOSITORY_URL) is set,"
+                        + " that will take precedence over this option.",
             defaultValue = "https://repo.maven.apache.org/maven2/")
-    private String repoRoot;
+    private List<String> repoRoots;
 
     @ConfigProperty(name = "maven-gav-checker.maven-repository.url")
-    String configRepoRoot;
+    Optional<List<String>> configRepoRoots;
+
+    @Option(
+            names = {"--hedge-delay"},
+            description =
+                    "When searching multiple repositories, the number of milliseconds to wait for"
+                            + " a repository to answer before also querying the next one. With the"
+                            + " default of 0 all repositories are queried at once. Outstanding"
+                            + " requests are cancelled once a repository confirms the GAV.",
+            defaultValue = "0")
+    private long hedgeDelay;
 
     @Option(
             names = {"-n", "--limit"},
@@ -91,12 +119,38 @@ public class Main implements Callable<Integer> {
             defaultValue = "-1")
     private int count;
 
+    @Option(
+            names = {"-c", "--concurrency"},
+            description =
+                    "The maximum number of simultaneous requests to make to the Maven repository."
+                            + " If not specified, the configuration property"
+                            + " maven-gav-checker.concurrency (or the environment variable"
+                            + " MAVEN_GAV_CHECKER_CONCURRENCY) is used, which defaults to 16.")
+    private Integer concurrency;
+
+    @ConfigProperty(name = "maven-gav-checker.concurrency")
+    int configConcurrency;
+
+    @ConfigProperty(name = "maven-gav-checker.source-concurrency")
+    int sourceConcurrency;
+
     @Option(
             names = {"-o", "--output-format"},
-            description = "The output format to print: human, json, or xml. Defaults to 'human'.",
+            description =
+                    "The output format to print: human, json, ndjson, or xml. Defaults to"
+                            + " 'human'. The human and ndjson formats print each result as soon as"
+                            + " it is available.",
             defaultValue = "human")
     private String outputFormat;
 
+    @Option(
+            names = {"--ordered"},
+            description =
+                    "Report results in the same order as the input GAVs, rather than in the order"
+                            + " that they complete.",
+            defaultValue = "false")
+    private boolean ordered;
+
     @Option(
             names = {"-k", "--insecure"},
             description =
@@ -116,12 +170,24 @@ public class Main implements Callable<Integer> {
             defaultValue = "false")
     private boolean interactive;
 
-    @ConfigProperty(name = "maven-gav-checker.maven-repository.skip-tls-validation")
-    boolean configInsecure;
+    @Option(
+            names = {"--bot-prs"},
+            description =
+                    "Treat GitHub repository URL inputs as their Pull Request lists, checking the"
+                            + " dependency updates proposed by every open Dependabot or Renovate"
+                            + " Pull Request of the repository.",
+            defaultValue = "false")
+    private boolean botPrs;
 
     @Inject @All List<SourceIntegration> sourceIntegrations;
     @Inject @All List<OutputReporter> reporters;
     @Inject Processor processor;
+    @Inject DaemonClient daemonClient;
+
+    @Spec CommandSpec spec;
+
+    private OutputReporter.Output output = OutputReporter.Output.LOG;
+    private boolean forwarded;
 
     public static void main(String... args) {
         int exitCode = new CommandLine(new Main()).execute(args);
@@ -130,39 +196,41 @@ public class Main implements Callable<Integer> {
 
     @Override
     public Integer call() throws Exception {
-        if (!interactive && (gavs == null || gavs.isEmpty())) {
+        if (gavs == null) {
+            gavs = List.of();
+        }
+        if (!interactive && gavs.isEmpty() && inputFiles.isEmpty()) {
             throw new IllegalArgumentException("No GAV arguments");
         }
-        var reporter =
-                reporters.stream()
-                        .filter(r -> r.formatSpecifier().equals(outputFormat))
-                        .findFirst()
-                        .orElseThrow(
-                                () ->
-                                        new IllegalArgumentException(
-                                                String.format(
-                                                        "Unknown output format \"%s\"",
-                                                        outputFormat)));
-        if (insecure || configInsecure) {
-            disableTlsValidation();
-        }
-        if (configRepoRoot != null && !configRepoRoot.isBlank()) {
-            repoRoot = configRepoRoot;
-        }
-        if (repoRoot.endsWith("/")) {
-            repoRoot = repoRoot.substring(0, repoRoot.length() - 1);
+        var reporter = reporter(outputFormat);
+        // local input cannot be read by the daemon, which may also resolve relative project
+        // directories differently
+        var localInput =
+                gavs.contains(STDIN)
+                        || !inputFiles.isEmpty()
+                        || gavs.stream().anyMatch(g -> g.indexOf(':') < 0);
+        if (!interactive && !forwarded && !localInput && daemonClient.isEnabled()) {
+            var exitCode = daemonClient.forward(spec.commandLine().getParseResult().originalArgs());
+            if (exitCode.isPresent()) {
+                return exitCode.getAsInt();
+            }
         }
+        if (interactive && count == -1) {
+            count = 1;
+        }
+        var options = configure();
         if (interactive) {
             try (Scanner scanner = new Scanner(System.in, StandardCharsets.UTF_8)) {
-                if (count == -1) {
-                    count = 1;
-                }
                 System.out.print("? ");
                 while (scanner.hasNext()) {
                     String tok = scanner.next();
                     System.out.println("...");
                     try {
-                        processor.execute(reporter, processGAVs(List.of(tok)), repoRoot, count);
+                        processor.execute(
+                                reporter,
+                                output,
+                                sink -> expand(List.of(tok), options, false, sink),
+                                options);
                     } catch (Exception e) {
                         Log.error(e);
                     }
@@ -171,58 +239,180 @@ public class Main implements Callable<Integer> {
             }
             return 0;
         }
-        Collection<GroupArtifactVersion> dependencies = processGAVs(gavs);
-        return processor.execute(reporter, dependencies, repoRoot, count);
+        return processor.execute(reporter, output, sink -> expandArguments(options, sink), options);
     }
 
-    private Collection<GroupArtifactVersion> processGAVs(Collection<String> gavs) {
-        Collection<GroupArtifactVersion> dependencies = new CopyOnWriteArrayList<>();
-        gavs.forEach(
-                gav -> {
-                    try {
-                        var url = new URL(gav);
-                        dependencies.addAll(
-                                sourceIntegrations.stream()
-                                        .filter(integration -> integration.test(url))
-                                        .findFirst()
-                                        .orElseThrow(
-                                                () ->
-                                                        new IllegalStateException(
-                                                                "No matching integrations found for"
-                                                                        + " provided URL"))
-                                        .apply(url));
-                    } catch (IOException | InterruptedException mue) {
-                        var matcher = GAV_PATTERN.matcher(gav);
-                        if (!matcher.matches()) {
-                            throw new IllegalArgumentException(
-                                    String.format("GAV %s was not parseable", gav));
-                        } else {
-                            var groupId = matcher.group("group");
-                            var artifactId = matcher.group("artifact");
-                            var version = matcher.group("version");
-                            dependencies.add(
-                                    new GroupArtifactVersion(groupId, artifactId, version));
-                        }
-                    }
-                });
-        assert !dependencies.isEmpty();
-        Log.tracev("Processing GAVs: {0}", dependencies);
-        return dependencies;
+    /** Mark this invocation as forwarded to the daemon, reporting to the given output. */
+    void forwarded(OutputReporter.Output output) {
+        this.output = output;
+        this.forwarded = true;
     }
 
-    private void disableTlsValidation() throws NoSuchAlgorithmException, KeyManagementException {
-        TrustManager trm =
-                new X509TrustManager() {
-                    public X509Certificate[] getAcceptedIssuers() {
-                        return null;
-                    }
+    OutputReporter reporter(String format) {
+        return reporters.stream()
+                .filter(r -> r.formatSpecifier().equals(format))
+                .findFirst()
+                .orElseThrow(
+                        () ->
+                                new IllegalArgumentException(
+                                        String.format("Unknown output format \"%s\"", format)));
+    }
+
+    /** Validate the options shared by every mode. */
+    CheckOptions configure() {
+        if (configRepoRoots.isPresent()) {
+            repoRoots = configRepoRoots.get();
+        }
+        if (concurrency == null) {
+            concurrency = configConcurrency;
+        }
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid concurrency %d", concurrency));
+        }
+        if (sourceConcurrency < 1) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid source concurrency %d", sourceConcurrency));
+        }
+        if (hedgeDelay < 0) {
+            throw new IllegalArgumentException(String.format("Invalid hedge delay %d", hedgeDelay));
+        }
+        var repositories =
+                repoRoots.stream()
+                        .map(String::strip)
+                        .filter(r -> !r.isEmpty())
+                        .map(r -> r.endsWith("/") ? r.substring(0, r.length() - 1) : r)
+                        .distinct()
+                        .toList();
+        return new CheckOptions(
+                repositories, count, concurrency, ordered, Duration.ofMillis(hedgeDelay), insecure);
+    }
+
+    /**
+     * Emit the GAVs named by the command line arguments, standard input and input files. URL inputs
+     * are expanded concurrently with each other and with the checks of the GAVs already emitted.
+     */
+    private void expandArguments(CheckOptions options, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        var context = expansionContext(options);
+        try (var expander = new Expander(sourceConcurrency, options.ordered(), sink)) {
+            for (var input : gavs) {
+                if (STDIN.equals(input)) {
+                    // System.in is left open, as it belongs to the whole process
+                    expandLines(
+                            new BufferedReader(
+                                    new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                            context,
+                            expander);
+                } else {
+                    expand(input, context, expander);
+                }
+            }
+            for (var file : inputFiles) {
+                try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    expandLines(reader, context, expander);
+                }
+            }
+            expander.await();
+        }
+    }
 
-                    public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+    private void expandLines(BufferedReader reader, ExpansionContext context, Expander expander)
+            throws IOException, InterruptedException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.strip();
+            if (!line.isEmpty() && !line.startsWith("#")) {
+                expand(line, context, expander);
+            }
+        }
+    }
 
-                    public void checkServerTrusted(X509Certificate[] certs, String authType) {}
-                };
-        SSLContext sc = SSLContext.getInstance("SSL");
-        sc.init(null, new TrustManager[] {trm}, null);
-        HttpsURLConnection.setDefaultSSLSocketFactory(sc.getSocketFactory());
+    /**
+     * Emit the GAVs named by the given inputs, each of which is either a GAV or a URL handled by
+     * one of the source integrations. URL inputs are expanded concurrently.
+     *
+     * @param untrusted whether the inputs come from a client that may not make this machine read
+     *     its own files or reach its network on the client's behalf
+     */
+    void expand(
+            Collection<String> inputs,
+            CheckOptions options,
+            boolean untrusted,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        var context =
+                new ExpansionContext(
+                        options.repositories(), output::warn, untrusted, options.insecure());
+        try (var expander = new Expander(sourceConcurrency, options.ordered(), sink)) {
+            for (var input : inputs) {
+                expand(input, context, expander);
+            }
+            expander.await();
+        }
+    }
+
+    /** Sources are searched for in the repositories being checked, and warn to the output. */
+    private ExpansionContext expansionContext(CheckOptions options) {
+        return new ExpansionContext(
+                options.repositories(), output::warn, false, options.insecure());
+    }
+
+    private void expand(String input, ExpansionContext context, Expander expander)
+            throws IOException, InterruptedException {
+        if (!GavTokenizer.isUrl(input)) {
+            // a GAV has at least two colons, so anything else may be a local project directory
+            if (input.indexOf(':') < 0 && Files.isDirectory(Path.of(input))) {
+                expand(Path.of(input).toUri().toString(), context, expander);
+                return;
+            }
+            expander.emit(GavTokenizer.parse(input));
+            return;
+        }
+        URL parsed;
+        try {
+            parsed = new URL(input);
+        } catch (MalformedURLException mue) {
+            // a GAV whose group happens to be a URL scheme, ex. jar:foo
+            expander.emit(GavTokenizer.parse(input));
+            return;
+        }
+        var url = botPrs ? PullRequestService.pullRequestList(parsed).orElse(parsed) : parsed;
+        var integrations = sourceIntegrations.stream().filter(i -> i.test(url)).toList();
+        if (integrations.isEmpty()) {
+            throw new IllegalStateException("No matching integrations found for provided URL");
+        }
+        expander.submit(sink -> expand(url, integrations, context, sink));
+    }
+
+    /**
+     * Expand a URL with the first of its matching integrations that understands it. Several
+     * integrations may match the same form of URL, such as the Pull Request integrations for each
+     * dependency update bot.
+     */
+    private static void expand(
+            URL url,
+            List<SourceIntegration> integrations,
+            ExpansionContext context,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        var failures = new ArrayList<UnrecognizedSourceException>();
+        for (var integration : integrations) {
+            try {
+                integration.expand(url, context, sink);
+                return;
+            } catch (UnrecognizedSourceException e) {
+                Log.debug(e.getMessage());
+                failures.add(e);
+            }
+        }
+        if (failures.size() == 1) {
+            throw failures.get(0);
+        }
+        var e =
+                new UnrecognizedSourceException(
+                        String.format("\"%s\" was not understood by any integration", url));
+        failures.forEach(e::addSuppressed);
+        throw e;
     }
 }
@@ -15,8 +15,30 @@
  */
 package com.github.andrewazores;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.github.andrewazores.model.MavenVersioning;
 import io.quarkus.runtime.annotations.RegisterForReflection;
 
 @RegisterForReflection
-public record ProcessResult(boolean exactMatch, boolean available, MavenVersioning versioning) {}
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProcessResult(
+        boolean exactMatch,
+        boolean available,
+        MavenVersioning versioning,
+        String repository,
+        String error) {
+    public ProcessResult(
+            boolean exactMatch, boolean available, MavenVersioning versioning, String repository) {
+        this(exactMatch, available, versioning, repository, null);
+    }
+
+    public static ProcessResult failure(boolean exactMatch, String error) {
+        return new ProcessResult(exactMatch, false, null, null, error);
+    }
+
+    @JsonIgnore
+    public boolean failed() {
+        return error != null;
+    }
+}
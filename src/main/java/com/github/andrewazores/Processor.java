@@ -16,69 +16,356 @@
 package com.github.andrewazores;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ForkJoinPool;
-
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import com.github.andrewazores.model.GroupArtifactVersion;
 import com.github.andrewazores.model.MavenVersioning;
 import com.github.andrewazores.output.OutputReporter;
+import com.github.andrewazores.repository.MetadataService;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
-import org.xml.sax.SAXException;
+import jakarta.inject.Inject;
 
 @ApplicationScoped
 class Processor {
 
+    private static final int REORDER_WINDOW_FACTOR = 4;
+    // how many of the most recently emitted GAVs are remembered to skip duplicates
+    private static final int DEDUPLICATION_WINDOW = 1 << 16;
+
+    @Inject MetadataService metadataService;
+
+    /** A producer of GAVs to check, which may emit them incrementally as they are discovered. */
+    @FunctionalInterface
+    interface Source {
+        void emit(Consumer<GroupArtifactVersion> sink) throws IOException, InterruptedException;
+    }
+
+    public int execute(
+            OutputReporter reporter, Collection<GroupArtifactVersion> gavs, CheckOptions options)
+            throws IOException, InterruptedException {
+        return execute(reporter, sink -> gavs.forEach(sink), options);
+    }
+
+    public int execute(OutputReporter reporter, Source source, CheckOptions options)
+            throws IOException, InterruptedException {
+        return execute(reporter, OutputReporter.Output.LOG, source, options);
+    }
+
+    /**
+     * Check the GAVs emitted by the source, writing the report to the given output. The source runs
+     * on its own thread and each distinct GAV is checked as soon as it is emitted, so slow sources
+     * such as transitive dependency resolution overlap with the checks. Duplicates among the most
+     * recent {@link #DEDUPLICATION_WINDOW} distinct GAVs are skipped, so memory use does not grow
+     * with the length of the source, but a GAV emitted again after that is checked again. Metadata
+     * is fetched once per artifact and repository and shared by the checks of that artifact, then
+     * dropped once none of them are outstanding. If the source fails, its exception is rethrown
+     * once the outstanding checks have been abandoned.
+     */
     public int execute(
             OutputReporter reporter,
-            Collection<GroupArtifactVersion> gavs,
-            String repoRoot,
-            int count)
-            throws InterruptedException {
-        final var latch = new CountDownLatch(gavs.size());
-        final Map<GroupArtifactVersion, ProcessResult> results = new ConcurrentHashMap<>();
-
-        gavs.forEach(
-                gav -> {
-                    ForkJoinPool.commonPool()
-                            .submit(
-                                    () -> {
-                                        try {
-                                            process(latch, repoRoot, gav, count, results);
-                                        } catch (Exception e) {
-                                            Log.error(e);
-                                        } finally {
-                                            latch.countDown();
-                                        }
-                                    });
-                });
-
-        latch.await();
-
-        reporter.accept(results, repoRoot);
-
-        return (int)
-                results.values().stream()
-                        .filter(r -> r.exactMatch() && !r.available())
-                        .limit(Integer.MAX_VALUE)
-                        .count();
+            OutputReporter.Output output,
+            Source source,
+            CheckOptions options)
+            throws IOException, InterruptedException {
+        final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        final Deque<Pending> pending = new ArrayDeque<>();
+        final Set<GroupArtifactVersion> seen =
+                Collections.newSetFromMap(
+                        new LinkedHashMap<>(16, 0.75f, true) {
+                            @Override
+                            protected boolean removeEldestEntry(
+                                    Map.Entry<GroupArtifactVersion, Boolean> eldest) {
+                                return size() > DEDUPLICATION_WINDOW;
+                            }
+                        });
+        // at most this many checks are outstanding at once. In ordered mode this is instead the
+        // distance checks may run ahead of the next input to be reported, which bounds the number
+        // of buffered results.
+        final int window = options.concurrency() * REORDER_WINDOW_FACTOR;
+        // the source blocks once this many of its GAVs are waiting to be checked or reported, so
+        // that arbitrarily long inputs are read no faster than they are checked
+        final var admitted = new Semaphore(window * 2);
+        final Map<Integer, Completed> reorderBuffer = new HashMap<>();
+        final var report = reporter.start(String.join(",", options.repositories()), output);
+        int failures = 0;
+
+        var producer =
+                newThread(
+                        () -> {
+                            Throwable error = null;
+                            try {
+                                source.emit(
+                                        gav -> {
+                                            try {
+                                                admitted.acquire();
+                                            } catch (InterruptedException e) {
+                                                Thread.currentThread().interrupt();
+                                                throw new CancellationException();
+                                            }
+                                            events.add(new Input(gav));
+                                        });
+                            } catch (Throwable t) {
+                                error = t;
+                            }
+                            events.add(new SourceDone(error));
+                        },
+                        "gav-source",
+                        1);
+        var executor = newExecutor("gav-check", options.concurrency());
+        var run = new Run(options, output);
+        try {
+            producer.start();
+            boolean sourceDone = false;
+            int accepted = 0;
+            int nextReport = 0;
+            int running = 0;
+            while (!sourceDone || running > 0 || !pending.isEmpty()) {
+                while (!pending.isEmpty()
+                        && (options.ordered() ? pending.peek().index() - nextReport : running)
+                                < window) {
+                    var next = pending.poll();
+                    running++;
+                    executor.execute(
+                            () ->
+                                    events.add(
+                                            new Completed(
+                                                    next.index(),
+                                                    next.gav(),
+                                                    run.check(next.gav()))));
+                }
+                var event = events.take();
+                if (event instanceof Input input) {
+                    if (seen.add(input.gav())) {
+                        Log.tracev("Processing GAV: {0}", input.gav());
+                        pending.add(new Pending(accepted++, input.gav()));
+                    } else {
+                        admitted.release();
+                    }
+                } else if (event instanceof SourceDone done) {
+                    sourceDone = true;
+                    if (done.error() != null) {
+                        rethrow(done.error());
+                    }
+                } else if (event instanceof Completed completed) {
+                    running--;
+                    if (!options.ordered()) {
+                        failures += emit(report, completed.gav(), completed.result());
+                        admitted.release();
+                        continue;
+                    }
+                    reorderBuffer.put(completed.index(), completed);
+                    Completed ready;
+                    while ((ready = reorderBuffer.remove(nextReport)) != null) {
+                        failures += emit(report, ready.gav(), ready.result());
+                        admitted.release();
+                        nextReport++;
+                    }
+                }
+            }
+        } finally {
+            producer.interrupt();
+            executor.shutdownNow();
+            run.close();
+        }
+
+        report.finish();
+
+        return failures;
     }
 
-    private void process(
-            CountDownLatch latch,
-            String repoRoot,
-            GroupArtifactVersion gav,
-            int count,
-            Map<GroupArtifactVersion, ProcessResult> results)
-            throws IOException, ParserConfigurationException, SAXException {
-        boolean exactMatch = !(gav.version() == null || "null".equals(gav.version()));
-        if (exactMatch) {
+    static void rethrow(Throwable t) throws IOException, InterruptedException {
+        if (t instanceof IOException e) {
+            throw e;
+        } else if (t instanceof InterruptedException e) {
+            throw e;
+        } else if (t instanceof RuntimeException e) {
+            throw e;
+        } else if (t instanceof Error e) {
+            throw e;
+        }
+        throw new IllegalStateException(t);
+    }
+
+    private static int emit(
+            OutputReporter.Report report, GroupArtifactVersion gav, ProcessResult result) {
+        report.accept(gav, result);
+        return result.failed() || (result.exactMatch() && !result.available()) ? 1 : 0;
+    }
+
+    /**
+     * Create a pool of daemon threads. A non-positive size creates an unbounded pool, which is only
+     * used for work that is otherwise rate limited.
+     */
+    static ExecutorService newExecutor(String name, int threads) {
+        var counter = new AtomicInteger();
+        return threads > 0
+                ? Executors.newFixedThreadPool(
+                        threads, r -> newThread(r, name, counter.incrementAndGet()))
+                : Executors.newCachedThreadPool(r -> newThread(r, name, counter.incrementAndGet()));
+    }
+
+    private static Thread newThread(Runnable r, String name, int id) {
+        var t = new Thread(r, String.format("%s-%d", name, id));
+        t.setDaemon(true);
+        return t;
+    }
+
+    private interface Event {}
+
+    private static record Input(GroupArtifactVersion gav) implements Event {}
+
+    private static record SourceDone(Throwable error) implements Event {}
+
+    private static record Pending(int index, GroupArtifactVersion gav) {}
+
+    private static record Completed(int index, GroupArtifactVersion gav, ProcessResult result)
+            implements Event {}
+
+    /** State shared by the checks of a single {@link #execute} call. */
+    private class Run implements AutoCloseable {
+        private final CheckOptions options;
+        private final OutputReporter.Output output;
+        private final Semaphore permits;
+        private final ExecutorService fetchExecutor;
+
+        Run(CheckOptions options, OutputReporter.Output output) {
+            this.options = options;
+            this.output = output;
+            this.permits = new Semaphore(options.concurrency());
+            this.fetchExecutor =
+                    options.repositories().size() > 1 ? newExecutor("gav-fetch", 0) : null;
+        }
+
+        ProcessResult check(GroupArtifactVersion gav) {
+            try {
+                return lookup(gav);
+            } catch (Exception e) {
+                Log.debug(e);
+                return ProcessResult.failure(isExactMatch(gav), e.toString());
+            }
+        }
+
+        private ProcessResult lookup(GroupArtifactVersion gav)
+                throws IOException, InterruptedException {
+            var repositories = options.repositories();
+            if (repositories.size() == 1) {
+                return fetch(repositories.get(0), gav);
+            }
+
+            // query the repositories in preference order, starting the next one whenever the
+            // previous ones have all missed or the hedge delay elapses without an answer. The
+            // first repository to confirm the GAV answers it, and outstanding requests are then
+            // cancelled.
+            var completion = new ExecutorCompletionService<ProcessResult>(fetchExecutor);
+            final Map<Future<ProcessResult>, String> pending = new HashMap<>();
+            final Map<String, ProcessResult> answered = new HashMap<>();
+            final Map<String, Throwable> errors = new LinkedHashMap<>();
+            var hedgeDelay = options.hedgeDelay().toNanos();
+            int next = 0;
+            try {
+                while (true) {
+                    if (next < repositories.size() && (pending.isEmpty() || hedgeDelay <= 0)) {
+                        var repoRoot = repositories.get(next++);
+                        pending.put(completion.submit(() -> fetch(repoRoot, gav)), repoRoot);
+                        continue;
+                    }
+                    if (pending.isEmpty()) {
+                        break;
+                    }
+                    var done =
+                            next < repositories.size()
+                                    ? completion.poll(hedgeDelay, TimeUnit.NANOSECONDS)
+                                    : completion.take();
+                    if (done == null) {
+                        var repoRoot = repositories.get(next++);
+                        Log.debugv("No answer for {0} yet, hedging with {1}", gav, repoRoot);
+                        pending.put(completion.submit(() -> fetch(repoRoot, gav)), repoRoot);
+                        continue;
+                    }
+                    var repoRoot = pending.remove(done);
+                    try {
+                        var result = done.get();
+                        if (result.available()) {
+                            return result;
+                        }
+                        answered.put(repoRoot, result);
+                    } catch (ExecutionException e) {
+                        Log.debugv(e.getCause(), "{0} failed for {1}", repoRoot, gav);
+                        errors.put(repoRoot, e.getCause());
+                    }
+                }
+            } finally {
+                pending.keySet().forEach(f -> f.cancel(true));
+            }
+
+            // unconfirmed GAVs are reported from the most preferred repository that answered
+            return repositories.stream()
+                    .filter(answered::containsKey)
+                    .findFirst()
+                    .map(answered::get)
+                    .orElseGet(
+                            () ->
+                                    ProcessResult.failure(
+                                            isExactMatch(gav),
+                                            errors.entrySet().stream()
+                                                    .map(
+                                                            e ->
+                                                                    String.format(
+                                                                            "%s: %s",
+                                                                            e.getKey(),
+                                                                            e.getValue()))
+                                                    .collect(Collectors.joining("; "))));
+        }
+
+        private ProcessResult fetch(String repoRoot, GroupArtifactVersion gav)
+                throws IOException, InterruptedException {
+            logSearch(repoRoot, gav);
+            var url = MetadataService.metadataUrl(repoRoot, gav.groupId(), gav.artifactId());
+            // concurrent checks of the same artifact share one download in the metadata service
+            permits.acquire();
+            try {
+                return result(
+                        gav,
+                        metadataService.load(
+                                url, options.count(), options.insecure(), output::warn),
+                        repoRoot);
+            } finally {
+                permits.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (fetchExecutor != null) {
+                fetchExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private static void logSearch(String repoRoot, GroupArtifactVersion gav) {
+        if (isExactMatch(gav)) {
             Log.debugv(
                     "Searching {0} for version {1} of {2} from {3}",
                     repoRoot, gav.version(), gav.artifactId(), gav.groupId());
@@ -87,32 +374,29 @@ class Processor {
                     "Searching {0} for available versions of {1} from {2}",
                     repoRoot, gav.artifactId(), gav.groupId());
         }
+    }
 
-        var url =
-                String.format(
-                        "%s/%s/%s/maven-metadata.xml",
-                        repoRoot, gav.groupId().replaceAll("\\.", "/"), gav.artifactId());
-        var versioning = MavenVersioning.from(url).limit(count);
-
+    private static ProcessResult result(
+            GroupArtifactVersion gav, MavenVersioning versioning, String repoRoot) {
+        boolean exactMatch = isExactMatch(gav);
         if (exactMatch) {
-            versioning
+            return versioning
                     .bestMatch(gav)
-                    .ifPresentOrElse(
+                    .map(
                             match ->
-                                    results.put(
-                                            gav,
-                                            new ProcessResult(
-                                                    exactMatch,
-                                                    true,
-                                                    new MavenVersioning(
-                                                            match, match, List.of(match)))),
-                            () ->
-                                    results.put(
-                                            gav, new ProcessResult(exactMatch, false, versioning)));
+                                    new ProcessResult(
+                                            exactMatch,
+                                            true,
+                                            new MavenVersioning(match, match, List.of(match)),
+                                            repoRoot))
+                    .orElseGet(() -> new ProcessResult(exactMatch, false, versioning, repoRoot));
         } else {
-            results.put(
-                    gav,
-                    new ProcessResult(exactMatch, !versioning.versions().isEmpty(), versioning));
+            return new ProcessResult(
+                    exactMatch, !versioning.versions().isEmpty(), versioning, repoRoot);
         }
     }
+
+    private static boolean isExactMatch(GroupArtifactVersion gav) {
+        return !(gav.version() == null || "null".equals(gav.version()));
+    }
 }
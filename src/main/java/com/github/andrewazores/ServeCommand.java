@@ -0,0 +1,321 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.output.OutputReporter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.quarkus.logging.Log;
+import jakarta.inject.Inject;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.ParentCommand;
+
+/**
+ * Serves checks over a local HTTP API, so that repeated checks share warm metadata caches,
+ * connection pools and source integrations rather than each paying for a fresh process.
+ */
+@Command(
+        name = "serve",
+        mixinStandardHelpOptions = true,
+        description =
+                "Run a local HTTP service which checks GAVs on request. POST a list of GAVs or"
+                        + " source URLs to /check, either as a JSON array or one per line, and the"
+                        + " results are returned in the requested format. The repository and"
+                        + " concurrency options given before 'serve' apply to every request.")
+public class ServeCommand implements Callable<Integer> {
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_BAD_REQUEST = 400;
+    private static final int HTTP_FORBIDDEN = 403;
+    private static final int HTTP_BAD_METHOD = 405;
+    private static final int HTTP_INTERNAL_ERROR = 500;
+
+    private static final Map<String, String> CONTENT_TYPES =
+            Map.of(
+                    "human", "text/plain",
+                    "json", "application/json",
+                    "ndjson", "application/x-ndjson",
+                    "xml", "application/xml");
+
+    /** URL schemes which read from the machine running the service rather than the network. */
+    private static final List<String> LOCAL_SCHEMES = List.of("file", "jar", "jrt");
+
+    @ParentCommand Main main;
+
+    @Option(
+            names = {"--port"},
+            description = "The port to listen on. Use 0 to pick a free port. Defaults to 8080.",
+            defaultValue = "8080")
+    int port;
+
+    @Option(
+            names = {"--bind"},
+            description = "The address to listen on. Defaults to the loopback address only.",
+            defaultValue = "127.0.0.1")
+    String bind;
+
+    @Option(
+            names = {"--allow-local-inputs"},
+            description =
+                    "Accept file: URLs and local directories as inputs even when listening on an"
+                            + " address other than loopback. Any client could then read POMs from"
+                            + " this machine's filesystem.")
+    boolean allowLocalInputs;
+
+    @Inject Processor processor;
+    @Inject ObjectMapper mapper;
+
+    @Override
+    public Integer call() throws Exception {
+        var server = start(main.configure());
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(0)));
+        Log.infov(
+                "Listening on http://{0}:{1,number,#}",
+                server.getAddress().getHostString(), server.getAddress().getPort());
+        new CountDownLatch(1).await();
+        return 0;
+    }
+
+    /** Start serving checks with the given default options. */
+    HttpServer start(CheckOptions options) throws IOException {
+        var server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        var restricted = !allowLocalInputs && !server.getAddress().getAddress().isLoopbackAddress();
+        var counter = new AtomicInteger();
+        server.setExecutor(
+                Executors.newFixedThreadPool(
+                        options.concurrency(),
+                        r -> {
+                            var t =
+                                    new Thread(
+                                            r,
+                                            String.format("serve-%d", counter.incrementAndGet()));
+                            t.setDaemon(true);
+                            return t;
+                        }));
+        server.createContext(
+                "/health",
+                exchange -> {
+                    try (exchange) {
+                        respond(exchange, HTTP_OK, "ok");
+                    }
+                });
+        server.createContext(
+                "/check",
+                exchange -> {
+                    try (exchange) {
+                        check(exchange, options, restricted);
+                    }
+                });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Handle a check request. The format, limit and ordering may be chosen per request with the
+     * {@code format}, {@code limit} and {@code ordered} query parameters; ndjson may also be
+     * requested with the {@code Accept} header. When restricted, inputs which would read from the
+     * local filesystem are refused, and the POMs of other inputs may not name their parents by
+     * relative path.
+     */
+    private void check(HttpExchange exchange, CheckOptions defaults, boolean restricted)
+            throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Allow", "POST");
+            respond(exchange, HTTP_BAD_METHOD, "Only POST is supported");
+            return;
+        }
+        Response response = null;
+        try {
+            var query = query(exchange.getRequestURI());
+            var format =
+                    query.getOrDefault(
+                            "format",
+                            exchange.getRequestHeaders().getOrDefault("Accept", List.of()).stream()
+                                            .anyMatch(a -> a.contains(CONTENT_TYPES.get("ndjson")))
+                                    ? "ndjson"
+                                    : "json");
+            var reporter = main.reporter(format);
+            var options =
+                    new CheckOptions(
+                            defaults.repositories(),
+                            query.containsKey("limit")
+                                    ? Integer.parseInt(query.get("limit"))
+                                    : defaults.count(),
+                            defaults.concurrency(),
+                            query.containsKey("ordered")
+                                    ? Boolean.parseBoolean(query.get("ordered"))
+                                    : defaults.ordered(),
+                            defaults.hedgeDelay(),
+                            defaults.insecure());
+            var inputs = inputs(exchange);
+            if (inputs.isEmpty()) {
+                throw new IllegalArgumentException("No GAV arguments");
+            }
+            if (restricted) {
+                var local = inputs.stream().filter(ServeCommand::isLocal).toList();
+                if (!local.isEmpty()) {
+                    respond(
+                            exchange,
+                            HTTP_FORBIDDEN,
+                            String.format(
+                                    "Local inputs are not accepted on a non-loopback address"
+                                            + " without --allow-local-inputs: %s",
+                                    local));
+                    return;
+                }
+            }
+            Log.debugv("Checking {0} in {1}", inputs, format);
+            response = new Response(exchange, CONTENT_TYPES.getOrDefault(format, "text/plain"));
+            processor.execute(
+                    reporter,
+                    response,
+                    sink -> main.expand(inputs, options, restricted, sink),
+                    options);
+            if (!response.started()) {
+                // nothing was reported, for example a POM without dependencies
+                exchange.sendResponseHeaders(HTTP_OK, -1);
+            }
+        } catch (IllegalArgumentException e) {
+            fail(exchange, response, HTTP_BAD_REQUEST, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(exchange, response, HTTP_INTERNAL_ERROR, e);
+        } catch (Exception e) {
+            Log.debug(e);
+            fail(exchange, response, HTTP_INTERNAL_ERROR, e);
+        }
+    }
+
+    private List<String> inputs(HttpExchange exchange) throws IOException {
+        var body = exchange.getRequestBody().readAllBytes();
+        var contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.contains("json")) {
+            return List.of(mapper.readValue(body, String[].class));
+        }
+        return Arrays.stream(new String(body, StandardCharsets.UTF_8).split("\\s+"))
+                .filter(s -> !s.isEmpty())
+                .toList();
+    }
+
+    /**
+     * Whether the input would be read from the local filesystem: a {@code file:} or similar URL, or
+     * a path to a local project directory. Any input without a colon is a path rather than a GAV,
+     * so the filesystem is not consulted and a client cannot probe which paths exist.
+     */
+    static boolean isLocal(String input) {
+        var colon = input.indexOf(':');
+        if (colon < 0) {
+            return true;
+        }
+        var scheme = input.substring(0, colon);
+        return LOCAL_SCHEMES.stream().anyMatch(scheme::equalsIgnoreCase);
+    }
+
+    private static Map<String, String> query(URI uri) {
+        var result = new HashMap<String, String>();
+        var raw = uri.getRawQuery();
+        if (raw == null) {
+            return result;
+        }
+        for (var param : raw.split("&")) {
+            var kv = param.split("=", 2);
+            result.put(
+                    URLDecoder.decode(kv[0], StandardCharsets.UTF_8),
+                    kv.length > 1 ? URLDecoder.decode(kv[1], StandardCharsets.UTF_8) : "");
+        }
+        return result;
+    }
+
+    /**
+     * Report a failure. If results have already been streamed the status can no longer change, so
+     * the error is appended to the body instead.
+     */
+    private void fail(HttpExchange exchange, Response response, int status, Exception e)
+            throws IOException {
+        var message = String.valueOf(e.getMessage());
+        if (response == null || !response.started()) {
+            respond(exchange, status, message);
+            return;
+        }
+        try {
+            response.error(mapper.writeValueAsString(Map.of("error", message)));
+        } catch (UncheckedIOException uioe) {
+            Log.debugv(uioe, "Could not report {0} to the client", message);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = (body + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    /**
+     * Writes the report to the response body. The status line is only sent with the first message,
+     * so that a request which fails before any result is reported still gets an error status. Each
+     * message is flushed, so streaming formats reach the client as results complete.
+     */
+    private static class Response implements OutputReporter.Output {
+        private final HttpExchange exchange;
+        private final String contentType;
+        private OutputStream body;
+
+        Response(HttpExchange exchange, String contentType) {
+            this.exchange = exchange;
+            this.contentType = contentType;
+        }
+
+        boolean started() {
+            return body != null;
+        }
+
+        @Override
+        public void info(String message) {
+            try {
+                if (body == null) {
+                    exchange.getResponseHeaders()
+                            .set("Content-Type", contentType + "; charset=utf-8");
+                    // a length of 0 selects chunked encoding
+                    exchange.sendResponseHeaders(HTTP_OK, 0);
+                    body = exchange.getResponseBody();
+                }
+                body.write((message + "\n").getBytes(StandardCharsets.UTF_8));
+                body.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.PushbackInputStream;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Forwards a CLI invocation to a warm background daemon over a Unix domain socket, spawning the
+ * daemon if none is running. Each distinct executable and configuration gets its own daemon, so a
+ * forwarded invocation behaves exactly like a local one. Whenever the daemon cannot be reached the
+ * invocation simply runs locally.
+ */
+@ApplicationScoped
+public class DaemonClient {
+
+    private static final Duration SPAWN_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration SPAWN_POLL = Duration.ofMillis(50);
+    private static final List<String> ENV_PREFIXES = List.of("MAVEN_GAV_CHECKER_", "QUARKUS_");
+    private static final List<String> ENV_NAMES = List.of("GH_TOKEN", "GITHUB_TOKEN");
+    private static final List<String> PROPERTY_PREFIXES = List.of("maven-gav-checker.", "quarkus.");
+
+    @ConfigProperty(name = "maven-gav-checker.daemon.enabled")
+    boolean enabled;
+
+    @ConfigProperty(name = "maven-gav-checker.cache.directory")
+    String directory;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Run the given arguments in the daemon, copying its output to this process's standard output
+     * and error.
+     *
+     * @return the exit code, or empty if the invocation should run locally instead
+     */
+    public OptionalInt forward(List<String> args) {
+        if (args.stream().anyMatch(DaemonClient::isRelativeFile)) {
+            // the daemon's working directory may differ from ours
+            return OptionalInt.empty();
+        }
+        try {
+            var command = command();
+            var key = key(command);
+            var socket = Path.of(directory, String.format("daemon-%s.sock", key));
+            var channel = connect(socket);
+            if (channel == null) {
+                spawn(command, socket, Path.of(directory, String.format("daemon-%s.log", key)));
+                channel = awaitDaemon(socket);
+            }
+            if (channel == null) {
+                Log.debugv("Daemon at {0} did not start, running locally", socket);
+                return OptionalInt.empty();
+            }
+            try (var connection = channel) {
+                DaemonProtocol.writeRequest(
+                        new DataOutputStream(Channels.newOutputStream(connection)), args);
+                var in = new PushbackInputStream(Channels.newInputStream(connection));
+                var first = in.read();
+                if (first < 0) {
+                    // the daemon went away before doing anything, such as when it idled out
+                    // just as we connected
+                    return OptionalInt.empty();
+                }
+                in.unread(first);
+                return OptionalInt.of(
+                        DaemonProtocol.relay(new DataInputStream(in), System.out, System.err));
+            }
+        } catch (EOFException e) {
+            System.err.println("The maven-gav-checker daemon exited unexpectedly");
+            return OptionalInt.of(1);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            Log.debugv(e, "Could not use the daemon, running locally");
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return OptionalInt.empty();
+        }
+    }
+
+    private static boolean isRelativeFile(String arg) {
+        return arg.startsWith("file:") && !arg.startsWith("file:/");
+    }
+
+    private static SocketChannel connect(Path socket) {
+        if (!Files.exists(socket)) {
+            return null;
+        }
+        try {
+            return SocketChannel.open(UnixDomainSocketAddress.of(socket));
+        } catch (IOException e) {
+            Log.tracev("No daemon at {0}: {1}", socket, e);
+            return null;
+        }
+    }
+
+    private static SocketChannel awaitDaemon(Path socket) throws InterruptedException {
+        var deadline = Instant.now().plus(SPAWN_TIMEOUT);
+        while (Instant.now().isBefore(deadline)) {
+            var channel = connect(socket);
+            if (channel != null) {
+                return channel;
+            }
+            Thread.sleep(SPAWN_POLL.toMillis());
+        }
+        return null;
+    }
+
+    private static void spawn(List<String> command, Path socket, Path log) throws IOException {
+        Files.createDirectories(socket.getParent());
+        var argv = new ArrayList<String>();
+        // detach from the invoking terminal's process group, so that interrupting this
+        // invocation does not also stop the daemon
+        for (var setsid : List.of("/usr/bin/setsid", "/bin/setsid")) {
+            if (Files.isExecutable(Path.of(setsid))) {
+                argv.add(setsid);
+                break;
+            }
+        }
+        argv.addAll(command);
+        argv.add("daemon");
+        argv.add(String.format("--socket=%s", socket));
+        Log.debugv("Spawning daemon: {0}", argv);
+        new ProcessBuilder(argv)
+                .redirectInput(ProcessBuilder.Redirect.from(new File("/dev/null")))
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log.toFile()))
+                .redirectErrorStream(true)
+                .start();
+    }
+
+    /** The command line that launches this same executable. */
+    private static List<String> command() {
+        var self =
+                ProcessHandle.current()
+                        .info()
+                        .command()
+                        .orElseThrow(() -> new IllegalStateException("Unknown executable"));
+        if (System.getProperty("org.graalvm.nativeimage.imagecode") != null) {
+            return List.of(self);
+        }
+        var entryPoint = System.getProperty("sun.java.command", "").split(" ")[0];
+        if (entryPoint.isEmpty()) {
+            throw new IllegalStateException("Unknown entry point");
+        }
+        return entryPoint.endsWith(".jar")
+                ? List.of(self, "-jar", entryPoint)
+                : List.of(self, "-cp", System.getProperty("java.class.path"), entryPoint);
+    }
+
+    /**
+     * Identify the daemon that can serve this invocation: the same executable, with the same
+     * configuration from the environment and system properties.
+     */
+    private static String key(List<String> command) {
+        var settings = new TreeMap<String, String>();
+        System.getenv()
+                .forEach(
+                        (k, v) -> {
+                            if (ENV_PREFIXES.stream().anyMatch(k::startsWith)
+                                    || ENV_NAMES.contains(k)) {
+                                settings.put("env:" + k, v);
+                            }
+                        });
+        System.getProperties()
+                .forEach(
+                        (k, v) -> {
+                            if (PROPERTY_PREFIXES.stream().anyMatch(k.toString()::startsWith)) {
+                                settings.put("prop:" + k, v.toString());
+                            }
+                        });
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            for (var part : command) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            for (Map.Entry<String, String> e : settings.entrySet()) {
+                digest.update(
+                        String.format("%s=%s", e.getKey(), e.getValue())
+                                .getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest()).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The wire format between a CLI invocation and the daemon. The client sends its arguments, and the
+ * daemon answers with a stream of frames, each a type byte followed by its payload: standard output
+ * and standard error text as they are written, then the exit code.
+ */
+public final class DaemonProtocol {
+
+    static final int VERSION = 1;
+
+    private static final byte STDOUT = 1;
+    private static final byte STDERR = 2;
+    private static final byte EXIT = 3;
+
+    private DaemonProtocol() {}
+
+    static void writeRequest(DataOutputStream out, List<String> args) throws IOException {
+        out.writeInt(VERSION);
+        out.writeInt(args.size());
+        for (var arg : args) {
+            writeString(out, arg);
+        }
+        out.flush();
+    }
+
+    public static List<String> readRequest(DataInputStream in) throws IOException {
+        var version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException(String.format("Unsupported protocol version %d", version));
+        }
+        var count = in.readInt();
+        var args = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            args.add(readString(in));
+        }
+        return args;
+    }
+
+    /**
+     * Copy the daemon's frames to the given streams until the exit frame arrives.
+     *
+     * @return the exit code
+     * @throws EOFException if the daemon went away before sending an exit code
+     */
+    static int relay(DataInputStream in, PrintStream out, PrintStream err) throws IOException {
+        while (true) {
+            var type = in.readByte();
+            switch (type) {
+                case STDOUT -> {
+                    out.print(readString(in));
+                    out.flush();
+                }
+                case STDERR -> {
+                    err.print(readString(in));
+                    err.flush();
+                }
+                case EXIT -> {
+                    return in.readInt();
+                }
+                default -> throw new IOException(String.format("Unknown frame type %d", type));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        var bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        var bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** The daemon's side of a connection. Frames may be written from any thread. */
+    public static class Sink {
+        private final DataOutputStream out;
+
+        public Sink(OutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+
+        public void stdout(String text) throws IOException {
+            write(STDOUT, text);
+        }
+
+        public void stderr(String text) throws IOException {
+            write(STDERR, text);
+        }
+
+        public synchronized void exit(int code) throws IOException {
+            out.writeByte(EXIT);
+            out.writeInt(code);
+            out.flush();
+        }
+
+        private synchronized void write(byte type, String text) throws IOException {
+            out.writeByte(type);
+            writeString(out, text);
+            out.flush();
+        }
+
+        /** A writer which sends each flushed chunk of text as a standard output frame. */
+        public Writer stdoutWriter() {
+            return writer(STDOUT);
+        }
+
+        /** A writer which sends each flushed chunk of text as a standard error frame. */
+        public Writer stderrWriter() {
+            return writer(STDERR);
+        }
+
+        private Writer writer(byte type) {
+            return new Writer() {
+                private final StringBuilder buffer = new StringBuilder();
+
+                @Override
+                public void write(char[] cbuf, int off, int len) {
+                    buffer.append(cbuf, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    if (!buffer.isEmpty()) {
+                        Sink.this.write(type, buffer.toString());
+                        buffer.setLength(0);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+    }
+}
@@ -15,25 +15,40 @@
  */
 package com.github.andrewazores.integrations;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 
 import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.pom.MvnResolver;
+import com.github.andrewazores.pom.Pom;
+import com.github.andrewazores.pom.PomResolver;
+import com.github.andrewazores.pom.ResolutionCache;
+import com.github.andrewazores.pom.ResolutionContext;
 import com.github.andrewazores.scripting.CliSupport;
 import io.quarkus.logging.Log;
 import jakarta.inject.Inject;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 
 public abstract class AbstractPomFileIntegration implements SourceIntegration {
-    private static final Pattern DEP_PATTERN =
-            Pattern.compile(
-                    "^[\\s]*(?<group>[a-z0-9._-]+):(?<artifact>[a-z0-9._-]+):(?<packaging>[a-z0-9._-]+):(?<version>[a-z0-9._-]+).*",
-                    Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
-
     @Inject protected CliSupport cli;
 
     @ConfigProperty(name = "maven-gav-checker.transitive-deps")
@@ -48,50 +63,434 @@ public abstract class AbstractPomFileIntegration implements SourceIntegration {
     @ConfigProperty(name = "maven-gav-checker.pom-url.supported-protocols")
     protected List<String> supportedProtocols;
 
+    @ConfigProperty(name = "maven-gav-checker.pom-resolver.mode")
+    protected String resolverMode;
+
+    @Inject protected PomResolver pomResolver;
+
+    @Inject protected MvnResolver mvnResolver;
+
+    @Inject protected ResolutionCache resolutionCache;
+
     @Override
     public boolean test(URL url) {
         return supportedProtocols.contains(url.getProtocol()) && url.getPath().endsWith(".xml");
     }
 
-    protected List<GroupArtifactVersion> process(Path pom)
+    @Override
+    public List<GroupArtifactVersion> apply(URL url) throws IOException, InterruptedException {
+        var result = new ArrayList<GroupArtifactVersion>();
+        expand(url, result::add);
+        return result;
+    }
+
+    @Override
+    public void expand(URL url, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        expand(url, ExpansionContext.DEFAULT, sink);
+    }
+
+    @Override
+    public abstract void expand(
+            URL url, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException;
+
+    protected void process(Path pom, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        process(pom, pom.toUri(), context, sink);
+    }
+
+    /**
+     * Resolve the dependencies of a POM file, emitting them to the sink. With the builtin resolver,
+     * transitive dependencies are emitted as the dependency graph is walked. Complete results are
+     * cached by the content of the POM and of its parents found by relative path, so an unchanged
+     * POM is only resolved once.
+     *
+     * @param location where the POM was originally read from, used to find its parent by relative
+     *     path
+     */
+    protected void process(
+            Path pom, URI location, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
             throws IOException, InterruptedException {
         Log.debugv("Processing XML file: {0}", pom);
-        var workDir = Files.createTempDirectory(getClass().getSimpleName());
-        var depsFile = workDir.resolve("deps.txt");
+        var resolution =
+                new ResolutionContext(
+                        context.repositories(),
+                        Map.of(),
+                        context::warn,
+                        context.untrusted(),
+                        context.insecure());
+        if (!resolutionCache.isEnabled()) {
+            resolve(pom, location, resolution, context, sink);
+            return;
+        }
+        var content = new ByteArrayOutputStream();
+        var bytes = Files.readAllBytes(pom);
+        content.write(bytes);
+        var model = parse(location.toString(), bytes);
+        if (model.isPresent()) {
+            for (var parent : pomResolver.relativeParents(model.get(), location, resolution)) {
+                content.write(0);
+                content.write(parent);
+            }
+        }
+        cached(
+                content.toByteArray(),
+                location,
+                resolution,
+                context,
+                s -> resolve(pom, location, resolution, context, s),
+                sink);
+    }
+
+    /**
+     * Resolve the dependencies of a whole reactor, emitting them to the sink. The POM files are
+     * given by their paths relative to the root {@code pom.xml}, and the reactor's modules are
+     * found by following {@code <modules>} from it. The other POMs are only read as parents and
+     * BOMs. Dependencies on the reactor's own artifacts are not emitted, and complete results are
+     * cached by the content of all of the POMs, and of the parents found by relative path outside
+     * of them.
+     *
+     * @param location where the reactor was read from, for logging. If it is a {@code file:}
+     *     directory, parents outside of the reactor are also found by relative path.
+     */
+    protected void processReactor(
+            Map<String, byte[]> files,
+            URI location,
+            ExpansionContext context,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        var poms = new HashMap<String, Pom>();
+        for (var file : files.entrySet()) {
+            parse(file.getKey(), file.getValue()).ifPresent(pom -> poms.put(file.getKey(), pom));
+        }
+        processReactor(files, poms, location, context, sink);
+    }
 
+    /**
+     * Resolve the dependencies of a whole reactor whose POM files have already been parsed.
+     *
+     * @param poms the POM files that could be parsed, by path
+     * @see #processReactor(Map, URI, ExpansionContext, Consumer)
+     */
+    protected void processReactor(
+            Map<String, byte[]> files,
+            Map<String, Pom> poms,
+            URI location,
+            ExpansionContext context,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        Log.debugv("Processing reactor of {0} POM files: {1}", files.size(), location);
+        var modules = modules(poms, context);
+        Log.debugv("{0} modules in reactor of {1}", modules.size(), location);
+        var workspace = new HashMap<GroupArtifactVersion, Pom>();
+        modules.values().forEach(pom -> workspace.putIfAbsent(pom.gav(), pom));
+        poms.values().forEach(pom -> workspace.putIfAbsent(pom.gav(), pom));
+        var resolution =
+                new ResolutionContext(
+                        context.repositories(),
+                        workspace,
+                        context::warn,
+                        context.untrusted(),
+                        context.insecure());
+        if (!resolutionCache.isEnabled()) {
+            resolveReactor(files, modules, location, resolution, context, sink);
+            return;
+        }
+        var content = new ByteArrayOutputStream();
+        for (var file : new TreeMap<>(files).entrySet()) {
+            content.write(file.getKey().getBytes(StandardCharsets.UTF_8));
+            content.write(0);
+            content.write(file.getValue());
+            content.write(0);
+        }
+        for (var module : modules.entrySet()) {
+            for (var parent :
+                    pomResolver.relativeParents(
+                            module.getValue(),
+                            moduleLocation(location, module.getKey()),
+                            resolution)) {
+                content.write(parent);
+                content.write(0);
+            }
+        }
+        cached(
+                content.toByteArray(),
+                location,
+                resolution,
+                context,
+                s -> resolveReactor(files, modules, location, resolution, context, s),
+                sink);
+    }
+
+    /**
+     * Resolve dependencies through the resolution cache, keyed by the given content and the
+     * repositories being checked. Results that involve a SNAPSHOT are not cached.
+     */
+    private void cached(
+            byte[] content,
+            URI location,
+            ResolutionContext resolution,
+            ExpansionContext context,
+            Resolution resolver,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        var key =
+                ResolutionCache.key(
+                        content,
+                        resolverMode,
+                        includeScope,
+                        Boolean.toString(enableTransitiveDeps),
+                        Boolean.toString(includeParentPom),
+                        String.join(",", context.repositories()));
+        var cached =
+                resolution.usedSnapshots()
+                        ? Optional.<List<GroupArtifactVersion>>empty()
+                        : resolutionCache.get(key);
+        if (cached.isPresent()) {
+            Log.debugv("Using cached dependencies of {0}", location);
+            cached.get().forEach(sink);
+            return;
+        }
+        var resolved = new LinkedHashSet<GroupArtifactVersion>();
+        var complete =
+                resolver.resolve(
+                        gav -> {
+                            resolved.add(gav);
+                            sink.accept(gav);
+                        });
+        if (!complete) {
+            return;
+        }
+        if (resolution.usedSnapshots() || resolved.stream().anyMatch(PomResolver::isSnapshot)) {
+            Log.debugv("Not caching dependencies of {0}, which involve SNAPSHOTs", location);
+            return;
+        }
         try {
-            if (Log.isDebugEnabled()) {
-                Log.debug(Files.readString(pom));
+            resolutionCache.put(key, resolved);
+        } catch (IOException e) {
+            context.warn(
+                    String.format(
+                            "Failed to update resolution cache for %s: %s",
+                            location, e.getMessage()));
+            Log.debug(e);
+        }
+    }
+
+    /** Resolve the dependencies of a POM file, returning whether the result is complete. */
+    private boolean resolve(
+            Path pom,
+            URI location,
+            ResolutionContext resolution,
+            ExpansionContext context,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        switch (resolverMode) {
+            case "builtin" -> {
+                try {
+                    return resolveBuiltin(pom, location, resolution, sink);
+                } catch (IOException e) {
+                    // anything already emitted is emitted again by mvn, but duplicates are
+                    // only checked once
+                    context.warn(
+                            String.format(
+                                    "Could not resolve %s in-process, falling back to mvn: %s",
+                                    location, e.getMessage()));
+                    Log.debug(e);
+                }
             }
+            case "mvn" -> {}
+            default ->
+                    throw new IllegalArgumentException(
+                            String.format("Unknown POM resolver \"%s\"", resolverMode));
+        }
+        if ("file".equals(location.getScheme())) {
+            // parents may be found next to the POM by relative path
+            mvnResolver.dependencies(pom).forEach(sink);
+        } else {
+            mvnResolver.standaloneDependencies(Files.readAllBytes(pom)).forEach(sink);
+        }
+        return true;
+    }
 
-            cli.script(
-                            "mvn",
-                            "-B",
-                            "-q",
-                            "-Dsilent",
-                            String.format("-DincludeScope=%s", includeScope),
-                            String.format("-DexcludeTransitive=%b", !enableTransitiveDeps),
-                            String.format("-DincludeParents=%b", includeParentPom),
-                            "-Dmdep.outputScope=false",
-                            String.format("-DoutputFile=%s", depsFile.toAbsolutePath().toString()),
-                            String.format("--file=%s", pom.toAbsolutePath().toString()),
-                            "dependency:list")
-                    .assertOk();
-            return Files.readAllLines(depsFile).stream()
-                    .peek(l -> Log.tracev("dependency: {0}", l))
-                    .filter(s -> DEP_PATTERN.matcher(s).matches())
-                    .map(
-                            s -> {
-                                var m2 = DEP_PATTERN.matcher(s);
-                                assert m2.matches();
-                                return new GroupArtifactVersion(
-                                        m2.group("group"),
-                                        m2.group("artifact"),
-                                        m2.group("version"));
-                            })
-                    .toList();
+    /** Resolve the dependencies of a reactor, returning whether the result is complete. */
+    private boolean resolveReactor(
+            Map<String, byte[]> files,
+            Map<String, Pom> modules,
+            URI location,
+            ResolutionContext resolution,
+            ExpansionContext context,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        // the reactor's own artifacts, whatever version they are depended on at
+        var own = new HashSet<String>();
+        modules.values()
+                .forEach(pom -> own.add(pom.gav().groupId() + ":" + pom.gav().artifactId()));
+        var emitted = new HashSet<GroupArtifactVersion>();
+        Consumer<GroupArtifactVersion> external =
+                gav -> {
+                    if (!own.contains(gav.groupId() + ":" + gav.artifactId()) && emitted.add(gav)) {
+                        sink.accept(gav);
+                    }
+                };
+
+        switch (resolverMode) {
+            case "builtin" -> {
+                try {
+                    boolean complete = true;
+                    for (var module : modules.entrySet()) {
+                        Log.tracev("Resolving module {0}", module.getKey());
+                        var moduleLocation = moduleLocation(location, module.getKey());
+                        if (enableTransitiveDeps) {
+                            complete &=
+                                    pomResolver.transitive(
+                                            module.getValue(),
+                                            moduleLocation,
+                                            resolution,
+                                            includeScope,
+                                            includeParentPom,
+                                            external);
+                        } else {
+                            pomResolver
+                                    .dependencies(
+                                            module.getValue(),
+                                            moduleLocation,
+                                            resolution,
+                                            includeScope,
+                                            includeParentPom)
+                                    .forEach(external);
+                        }
+                    }
+                    return complete;
+                } catch (IOException e) {
+                    context.warn(
+                            String.format(
+                                    "Could not resolve %s in-process, falling back to mvn: %s",
+                                    location, e.getMessage()));
+                    Log.debug(e);
+                }
+            }
+            case "mvn" -> {}
+            default ->
+                    throw new IllegalArgumentException(
+                            String.format("Unknown POM resolver \"%s\"", resolverMode));
+        }
+        if ("file".equals(location.getScheme())) {
+            // the project is already on disk, along with any parents outside of it
+            mvnResolver.reactor(Path.of(location).resolve("pom.xml")).forEach(external);
+            return true;
+        }
+        // mvn needs the POMs on disk, but nothing else from the tree
+        var workDir = Files.createTempDirectory(getClass().getSimpleName());
+        try {
+            for (var file : files.entrySet()) {
+                var path = workDir.resolve(file.getKey()).normalize();
+                if (!path.startsWith(workDir)) {
+                    continue;
+                }
+                Files.createDirectories(path.getParent());
+                Files.write(path, file.getValue());
+            }
+            mvnResolver.reactor(workDir.resolve("pom.xml")).forEach(external);
         } finally {
-            Files.deleteIfExists(depsFile);
+            try (var paths = Files.walk(workDir)) {
+                for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Parse a POM file of a reactor, if it is one. */
+    protected static Optional<Pom> parse(String path, byte[] content) {
+        try {
+            return Optional.of(Pom.parse(new ByteArrayInputStream(content)));
+        } catch (IOException e) {
+            // ex. test fixtures, which are not part of the reactor
+            Log.debugv("Skipping {0}: {1}", path, e.getMessage());
+            return Optional.empty();
         }
     }
+
+    /**
+     * The modules of a reactor by path, starting from the root {@code pom.xml} and following {@code
+     * <modules>}.
+     */
+    private static Map<String, Pom> modules(Map<String, Pom> poms, ExpansionContext context)
+            throws IOException {
+        if (!poms.containsKey("pom.xml")) {
+            throw new FileNotFoundException("No root pom.xml");
+        }
+        var modules = new LinkedHashMap<String, Pom>();
+        var queue = new ArrayDeque<String>();
+        queue.add("pom.xml");
+        while (!queue.isEmpty()) {
+            var path = queue.remove();
+            var pom = poms.get(path);
+            if (pom == null) {
+                context.warn(String.format("Module %s is not in the reactor, skipping it", path));
+                continue;
+            }
+            if (modules.putIfAbsent(path, pom) != null) {
+                continue;
+            }
+            var dir = path.contains("/") ? path.substring(0, path.lastIndexOf('/') + 1) : "";
+            for (var module : pom.modules()) {
+                var modulePath = module.endsWith(".xml") ? module : module + "/pom.xml";
+                queue.add(normalize(dir + modulePath));
+            }
+        }
+        return modules;
+    }
+
+    /** Where a module of a reactor was read from, if its parents may be found by relative path. */
+    private static URI moduleLocation(URI location, String path) {
+        return "file".equals(location.getScheme()) ? location.resolve(path) : null;
+    }
+
+    /** Remove {@code .} and {@code ..} segments from a relative path. */
+    private static String normalize(String path) {
+        var segments = new ArrayDeque<String>();
+        for (var segment : path.split("/")) {
+            if (segment.isEmpty() || ".".equals(segment)) {
+                continue;
+            }
+            if ("..".equals(segment)) {
+                segments.pollLast();
+            } else {
+                segments.add(segment);
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private boolean resolveBuiltin(
+            Path pom,
+            URI location,
+            ResolutionContext resolution,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        Pom model;
+        try (var stream = Files.newInputStream(pom)) {
+            model = Pom.parse(stream);
+        }
+        if (enableTransitiveDeps) {
+            return pomResolver.transitive(
+                    model, location, resolution, includeScope, includeParentPom, sink);
+        }
+        var deps =
+                pomResolver.dependencies(
+                        model, location, resolution, includeScope, includeParentPom);
+        Log.tracev("dependencies: {0}", deps);
+        deps.forEach(sink);
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface Resolution {
+        /** Resolve dependencies to the sink, returning whether the result is complete. */
+        boolean resolve(Consumer<GroupArtifactVersion> sink)
+                throws IOException, InterruptedException;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import io.quarkus.logging.Log;
+
+/**
+ * The settings of the invocation a source is expanded for.
+ *
+ * @param repositories the repositories being checked, which POMs are also searched for in
+ * @param warnings where to report problems that do not fail the expansion
+ * @param untrusted whether the sources were given by a client that may not read this machine's
+ *     files or reach its network, so remote POMs may not name their parents by relative path
+ * @param insecure whether TLS validation is skipped when downloading sources and POMs
+ */
+public record ExpansionContext(
+        List<String> repositories, Consumer<String> warnings, boolean untrusted, boolean insecure) {
+
+    /** No repositories being checked, and warnings written to the log. */
+    public static final ExpansionContext DEFAULT = new ExpansionContext(List.of(), Log::warn);
+
+    public ExpansionContext {
+        repositories = List.copyOf(repositories);
+    }
+
+    public ExpansionContext(List<String> repositories, Consumer<String> warnings) {
+        this(repositories, warnings, false, false);
+    }
+
+    public void warn(String message) {
+        warnings.accept(message);
+    }
+}
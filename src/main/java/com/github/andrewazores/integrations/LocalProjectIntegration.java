@@ -0,0 +1,156 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.pom.Pom;
+import com.github.andrewazores.util.Futures;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Checks the dependencies of every module of a local project directory, given as a {@code file:}
+ * URL. Starting from the root {@code pom.xml}, only the POM files that are declared as modules, or
+ * as parents by relative path within the directory, are read, a level at a time with each level's
+ * files read and parsed concurrently. The reactor is then resolved as a whole, emitting each
+ * external GAV once as it is resolved, however many modules depend on it.
+ */
+@ApplicationScoped
+public class LocalProjectIntegration extends AbstractPomFileIntegration {
+
+    @ConfigProperty(name = "maven-gav-checker.concurrency")
+    int concurrency;
+
+    private ExecutorService executor;
+
+    @Override
+    public boolean test(URL url) {
+        if (!"file".equals(url.getProtocol())) {
+            return false;
+        }
+        try {
+            return Files.isDirectory(Path.of(url.toURI()));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void expand(URL url, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        Log.debugv("Processing project directory: {0}", url);
+        Path root;
+        try {
+            root = Path.of(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        var files = new HashMap<String, byte[]>();
+        var poms = new HashMap<String, Pom>();
+        var visited = new HashSet<Path>();
+        var level = List.of(root.resolve("pom.xml"));
+        while (!level.isEmpty()) {
+            var reads = new ArrayList<Future<PomFile>>();
+            for (var file : level) {
+                if (visited.add(file)) {
+                    reads.add(executor().submit(() -> read(root, file)));
+                }
+            }
+            var next = new ArrayList<Path>();
+            for (var future : reads) {
+                var read = Futures.await(future);
+                if (read == null) {
+                    // missing modules are reported when the reactor is resolved
+                    continue;
+                }
+                files.put(read.path(), read.content());
+                if (read.pom() != null) {
+                    poms.put(read.path(), read.pom());
+                    next.addAll(references(root, read.file(), read.pom()));
+                }
+            }
+            level = next;
+        }
+        processReactor(files, poms, root.toUri(), context, sink);
+    }
+
+    /** Read and parse a POM file of the project, if it exists. */
+    private static PomFile read(Path root, Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        var path = root.relativize(file).toString().replace(File.separatorChar, '/');
+        var content = Files.readAllBytes(file);
+        return new PomFile(file, path, content, parse(path, content).orElse(null));
+    }
+
+    /** The POM files within the project that a POM refers to as modules or as its parent. */
+    private static List<Path> references(Path root, Path file, Pom pom) {
+        var references = new ArrayList<Path>();
+        for (var module : pom.modules()) {
+            references.add(pomFile(file.getParent(), module));
+        }
+        var relativePath = pom.parentRelativePath();
+        if (pom.parent() != null && relativePath != null && !relativePath.isBlank()) {
+            references.add(pomFile(file.getParent(), relativePath));
+        }
+        references.removeIf(p -> !p.startsWith(root));
+        return references;
+    }
+
+    private static Path pomFile(Path dir, String path) {
+        var resolved = dir.resolve(path).normalize();
+        return path.endsWith(".xml") ? resolved : resolved.resolve("pom.xml");
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            var counter = new AtomicInteger();
+            executor =
+                    Executors.newFixedThreadPool(
+                            concurrency,
+                            r -> {
+                                var t =
+                                        new Thread(
+                                                r,
+                                                String.format(
+                                                        "pom-walk-%d", counter.incrementAndGet()));
+                                t.setDaemon(true);
+                                return t;
+                            });
+        }
+        return executor;
+    }
+
+    private static record PomFile(Path file, String path, byte[] content, Pom pom) {}
+}
@@ -15,45 +15,49 @@
  */
 package com.github.andrewazores.integrations;
 
-import java.io.BufferedInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.function.Consumer;
 
 import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.repository.RepositoryTransport;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
 
 @ApplicationScoped
 public class PomUrlIntegration extends AbstractPomFileIntegration {
 
+    @Inject RepositoryTransport transport;
+
     @Override
     public boolean test(URL url) {
         return supportedProtocols.contains(url.getProtocol()) && url.getPath().endsWith(".xml");
     }
 
     @Override
-    public List<GroupArtifactVersion> apply(URL url) throws IOException, InterruptedException {
+    public void expand(URL url, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
         Log.debugv("Processing XML URL: {0}", url);
 
         if ("file".equals(url.getProtocol())) {
-            return process(Path.of(url.getPath()));
+            process(Path.of(url.getPath()), context, sink);
+            return;
         }
 
         var workDir = Files.createTempDirectory(getClass().getSimpleName());
         var pom = workDir.resolve("pom.xml");
-        try (BufferedInputStream in = new BufferedInputStream(url.openStream());
-                FileOutputStream fileOutputStream = new FileOutputStream(pom.toFile())) {
-            var dataBuffer = new byte[8 * 1024];
-            int bytesRead;
-            while ((bytesRead = in.read(dataBuffer, 0, 1024)) != -1) {
-                fileOutputStream.write(dataBuffer, 0, bytesRead);
+        try {
+            try (var in = transport.open(url.toString(), context.insecure())) {
+                Files.copy(in, pom);
             }
 
-            return process(pom);
+            process(pom, url.toURI(), context, sink);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
         } finally {
             Files.deleteIfExists(pom);
         }
@@ -15,12 +15,34 @@
  */
 package com.github.andrewazores.integrations;
 
+import java.io.IOException;
 import java.net.URL;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import com.github.andrewazores.model.GroupArtifactVersion;
 import com.github.andrewazores.util.IOFunction;
 
 public interface SourceIntegration
-        extends Predicate<URL>, IOFunction<URL, List<GroupArtifactVersion>> {}
+        extends Predicate<URL>, IOFunction<URL, List<GroupArtifactVersion>> {
+
+    /**
+     * Emit the GAVs for the given URL to the sink as they are discovered, so that they can be
+     * checked while the rest are still being worked out. By default this emits the result of {@link
+     * #apply(URL)}.
+     */
+    default void expand(URL url, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        apply(url).forEach(sink);
+    }
+
+    /**
+     * Emit the GAVs for the given URL to the sink, for an invocation with the given context. By
+     * default the context is not used.
+     */
+    default void expand(URL url, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        expand(url, sink);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import com.github.andrewazores.integrations.SourceIntegration;
+import com.github.andrewazores.model.GroupArtifactVersion;
+import io.quarkus.arc.All;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Checks every dependency update proposed by the open bot Pull Requests of a GitHub repository,
+ * given its {@code https://github.com/owner/repo/pulls} URL. The Pull Requests are listed at once
+ * and each is read by the {@link PullRequestParser} of the bot that opened it. Pull Requests opened
+ * by anyone else, or that their bot's parser does not understand, are skipped.
+ */
+@ApplicationScoped
+class GitHubBotPullRequestsIntegration implements SourceIntegration {
+
+    @Inject PullRequestService pullRequests;
+    @Inject @All List<PullRequestParser> parsers;
+
+    @Override
+    public boolean test(URL url) {
+        return PullRequestService.isPullRequestList(url);
+    }
+
+    @Override
+    public List<GroupArtifactVersion> apply(URL url) throws IOException, InterruptedException {
+        // /owner/repo/pulls
+        var path = url.getPath().split("/");
+        var open = pullRequests.listOpen(path[1], path[2]);
+        var result = new LinkedHashSet<GroupArtifactVersion>();
+        int understood = 0;
+        for (var pr : open) {
+            var bot = pr.bot();
+            if (bot.isEmpty()) {
+                Log.tracev("Skipping {0}, opened by {1}", pr.url(), pr.author());
+                continue;
+            }
+            for (var parser : parsers) {
+                if (!parser.bot().equals(bot.get())) {
+                    continue;
+                }
+                var gavs = parser.parse(pr);
+                if (!gavs.isEmpty()) {
+                    result.addAll(gavs);
+                    understood++;
+                    break;
+                }
+            }
+        }
+        Log.debugv(
+                "Found {0} GAVs in {1} of the {2} open Pull Requests of {3}",
+                result.size(), understood, open.size(), url);
+        return List.copyOf(result);
+    }
+}
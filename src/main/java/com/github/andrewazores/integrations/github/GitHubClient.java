@@ -0,0 +1,205 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.scripting.CliSupport;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * In-process client for the GitHub REST and GraphQL APIs. Requests share one HTTP client, and so
+ * its pooled connections, for the lifetime of the application. Requests are authenticated with
+ * {@code maven-gav-checker.github.token}, {@code GH_TOKEN} or {@code GITHUB_TOKEN}, whichever is
+ * set first, or else with the token of a logged in {@code gh}, which is only asked once.
+ */
+@ApplicationScoped
+public class GitHubClient {
+
+    @ConfigProperty(name = "maven-gav-checker.github.client")
+    String mode;
+
+    @ConfigProperty(name = "maven-gav-checker.github.api-url")
+    String apiUrl;
+
+    @ConfigProperty(name = "maven-gav-checker.github.token")
+    Optional<String> configToken;
+
+    @ConfigProperty(name = "maven-gav-checker.http.connect-timeout")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "maven-gav-checker.http.read-timeout")
+    Duration readTimeout;
+
+    @Inject CliSupport cli;
+    @Inject ObjectMapper mapper;
+
+    private HttpClient client;
+    private Optional<String> token;
+
+    /**
+     * Whether GitHub data is read with this client, rather than by running {@code gh} for each
+     * request.
+     */
+    public boolean isEnabled() {
+        return switch (mode) {
+            case "api" -> true;
+            case "gh" -> false;
+            default ->
+                    throw new IllegalArgumentException(
+                            String.format("Unknown GitHub client \"%s\"", mode));
+        };
+    }
+
+    /** GET a REST API path, ex. {@code /repos/owner/repo}. */
+    public JsonNode get(String path) throws IOException, InterruptedException {
+        return send(request(path).GET().build());
+    }
+
+    /**
+     * Open a REST API path for streaming, ex. an archive download. Redirects, such as to {@code
+     * codeload.github.com}, are followed.
+     */
+    public InputStream open(String path) throws IOException, InterruptedException {
+        var request = request(path).GET().build();
+        Log.tracev("{0} {1}", request.method(), request.uri());
+        var response = client().send(request, HttpResponse.BodyHandlers.ofInputStream());
+        Log.tracev("{0} {1}", response.statusCode(), request.uri());
+        try {
+            assertOk(request, response.statusCode());
+        } catch (IOException e) {
+            response.body().close();
+            throw e;
+        }
+        return response.body();
+    }
+
+    /** Run a GraphQL query, returning its {@code data}. */
+    public JsonNode graphql(String query, Map<String, ?> variables)
+            throws IOException, InterruptedException {
+        var body = mapper.writeValueAsBytes(Map.of("query", query, "variables", variables));
+        var response =
+                send(
+                        request("/graphql")
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                                .build());
+        var errors = response.path("errors");
+        if (!errors.isEmpty()) {
+            throw new IOException(
+                    String.format(
+                            "GitHub GraphQL query failed: %s",
+                            errors.path(0).path("message").asText(errors.toString())));
+        }
+        return response.path("data");
+    }
+
+    private HttpRequest.Builder request(String path) throws InterruptedException {
+        var base = apiUrl.endsWith("/") ? apiUrl.substring(0, apiUrl.length() - 1) : apiUrl;
+        var builder =
+                HttpRequest.newBuilder(URI.create(base + path))
+                        .timeout(readTimeout)
+                        .header("Accept", "application/vnd.github+json")
+                        .header("X-GitHub-Api-Version", "2022-11-28");
+        token().ifPresent(t -> builder.header("Authorization", "Bearer " + t));
+        return builder;
+    }
+
+    private JsonNode send(HttpRequest request) throws IOException, InterruptedException {
+        Log.tracev("{0} {1}", request.method(), request.uri());
+        var response = client().send(request, HttpResponse.BodyHandlers.ofByteArray());
+        Log.tracev("{0} {1}", response.statusCode(), request.uri());
+        assertOk(request, response.statusCode());
+        return mapper.readTree(response.body());
+    }
+
+    private static void assertOk(HttpRequest request, int statusCode) throws IOException {
+        if (statusCode == 404) {
+            throw new FileNotFoundException(request.uri().toString());
+        }
+        if (statusCode < 200 || statusCode >= 300) {
+            throw new IOException(
+                    String.format(
+                            "GitHub returned HTTP response code: %d for URL: %s",
+                            statusCode, request.uri()));
+        }
+    }
+
+    private synchronized HttpClient client() {
+        if (client == null) {
+            client =
+                    HttpClient.newBuilder()
+                            .followRedirects(HttpClient.Redirect.NORMAL)
+                            .connectTimeout(connectTimeout)
+                            .build();
+        }
+        return client;
+    }
+
+    private synchronized Optional<String> token() throws InterruptedException {
+        if (token == null) {
+            var configured =
+                    Stream.of(
+                                    configToken,
+                                    Optional.ofNullable(System.getenv("GH_TOKEN")),
+                                    Optional.ofNullable(System.getenv("GITHUB_TOKEN")))
+                            .flatMap(Optional::stream)
+                            .map(String::strip)
+                            .filter(t -> !t.isEmpty())
+                            .findFirst();
+            token = configured.isPresent() ? configured : ghToken();
+        }
+        return token;
+    }
+
+    private Optional<String> ghToken() throws InterruptedException {
+        if (cli.which("gh").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            var proc = cli.script("gh", "auth", "token", "--hostname", host());
+            if (proc.ok() && !proc.out().isEmpty()) {
+                return Optional.of(proc.out().get(0).strip());
+            }
+            Log.debugv("No token from gh: {0}", proc.err());
+        } catch (IOException e) {
+            Log.debug(e);
+        }
+        // unauthenticated requests are still allowed, at a lower rate limit
+        return Optional.empty();
+    }
+
+    /** The GitHub host that the API is served for, ex. github.com for api.github.com. */
+    private String host() {
+        var host = URI.create(apiUrl).getHost();
+        return "api.github.com".equals(host) ? "github.com" : host;
+    }
+}
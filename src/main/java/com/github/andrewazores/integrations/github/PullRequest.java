@@ -0,0 +1,38 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.util.Optional;
+
+/**
+ * The parts of a GitHub Pull Request that the source integrations work from.
+ *
+ * @param author the author's login, ex. {@code dependabot[bot]}, or {@code app/dependabot} when
+ *     read with {@code gh}
+ */
+public record PullRequest(String url, String title, String body, String author) {
+
+    /** The name of the bot that opened the Pull Request, ex. {@code dependabot}, if a bot did. */
+    public Optional<String> bot() {
+        if (author.startsWith("app/")) {
+            return Optional.of(author.substring("app/".length()));
+        }
+        if (author.endsWith("[bot]")) {
+            return Optional.of(author.substring(0, author.length() - "[bot]".length()));
+        }
+        return Optional.empty();
+    }
+}
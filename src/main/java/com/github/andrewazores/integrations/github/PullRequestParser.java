@@ -0,0 +1,33 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.util.List;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+
+/** Extracts the dependency updates made by a dependency update bot's Pull Requests. */
+public interface PullRequestParser {
+
+    /** The name of the bot whose Pull Requests are understood, ex. {@code dependabot}. */
+    String bot();
+
+    /**
+     * The GAVs that the Pull Request updates to, or an empty list if it is not understood, for
+     * example because it was opened by a different bot.
+     */
+    List<GroupArtifactVersion> parse(PullRequest pr);
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.scripting.CliSupport;
+import com.github.andrewazores.util.Futures;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Fetches GitHub Pull Requests for the source integrations. The title, body and author are read
+ * with a single API request, or {@code gh} call if the API client is disabled, and kept for {@code
+ * maven-gav-checker.github.pull-request-ttl} so that every integration trying the same URL, and
+ * every repeat of it, shares that request. At most {@link #MAX_KEPT_PULL_REQUESTS} are kept.
+ */
+@ApplicationScoped
+public class PullRequestService {
+
+    @Inject GitHubClient github;
+    @Inject CliSupport cli;
+    @Inject ObjectMapper mapper;
+
+    @ConfigProperty(name = "maven-gav-checker.github.pull-request-ttl")
+    Duration ttl;
+
+    private static final String OPEN_PULL_REQUESTS_QUERY =
+            """
+            query($owner: String!, $repo: String!, $cursor: String) {
+              repository(owner: $owner, name: $repo) {
+                pullRequests(states: OPEN, first: 100, after: $cursor) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { url title body author { __typename login } }
+                }
+              }
+            }
+            """;
+
+    // how many Pull Requests are kept at once, in case the service runs for a long time
+    static final int MAX_KEPT_PULL_REQUESTS = 1024;
+
+    // least recently used first, dropping the eldest once it is stale or too many are kept
+    private final Map<String, Fetch> fetches =
+            Collections.synchronizedMap(
+                    new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, Fetch> eldest) {
+                            return size() > MAX_KEPT_PULL_REQUESTS
+                                    || eldest.getValue().isStale(ttl);
+                        }
+                    });
+
+    /** Whether the URL has the form of a GitHub Pull Request URL. */
+    public static boolean isPullRequest(URL url) {
+        return ("http".equals(url.getProtocol()) || "https".equals(url.getProtocol()))
+                && "github.com".equals(url.getHost())
+                && url.getPath().matches("/[\\w._-]+/[\\w._-]+/pull/[\\d]+/?");
+    }
+
+    /** Whether the URL has the form of a GitHub repository's Pull Request list URL. */
+    public static boolean isPullRequestList(URL url) {
+        return ("http".equals(url.getProtocol()) || "https".equals(url.getProtocol()))
+                && "github.com".equals(url.getHost())
+                && url.getPath().matches("/[\\w._-]+/[\\w._-]+/pulls/?");
+    }
+
+    /** The Pull Request list URL of a GitHub repository URL, if it is one. */
+    public static Optional<URL> pullRequestList(URL repository) throws MalformedURLException {
+        if (!("http".equals(repository.getProtocol()) || "https".equals(repository.getProtocol()))
+                || !"github.com".equals(repository.getHost())
+                || !repository.getPath().matches("/[\\w._-]+/[\\w._-]+/?")) {
+            return Optional.empty();
+        }
+        var path =
+                repository.getPath().endsWith("/")
+                        ? repository.getPath()
+                        : repository.getPath() + "/";
+        return Optional.of(new URL(repository, path + "pulls"));
+    }
+
+    public PullRequest get(URL url) throws IOException, InterruptedException {
+        var key = url.toString();
+        var created = new Fetch(Instant.now(), new CompletableFuture<>());
+        var fetch = fetches.merge(key, created, (old, fresh) -> old.isStale(ttl) ? fresh : old);
+        if (fetch == created) {
+            try {
+                created.result().complete(fetch(url));
+            } catch (Exception e) {
+                created.result().completeExceptionally(e);
+                fetches.remove(key, created);
+            }
+        } else {
+            Log.tracev("Using fetched Pull Request {0}", key);
+        }
+        return Futures.await(fetch.result());
+    }
+
+    private PullRequest fetch(URL url) throws IOException, InterruptedException {
+        if (github.isEnabled()) {
+            // /owner/repo/pull/number
+            var path = url.getPath().split("/");
+            var json =
+                    github.get(String.format("/repos/%s/%s/pulls/%s", path[1], path[2], path[4]));
+            return new PullRequest(
+                    url.toString(),
+                    json.path("title").asText("").strip(),
+                    json.path("body").asText("").strip(),
+                    json.path("user").path("login").asText(""));
+        }
+        cli.testCommand("gh");
+        var proc = cli.script("gh", "pr", "view", url.toString(), "--json", "title,body,author");
+        var out = String.join("\n", proc.out());
+        Log.trace(out);
+        proc.assertOk();
+        return pullRequest(url.toString(), mapper.readTree(out));
+    }
+
+    /**
+     * List the open Pull Requests of a repository. The API client pages through them with one
+     * GraphQL query, while {@code gh} lists them with a single call.
+     */
+    public List<PullRequest> listOpen(String owner, String repo)
+            throws IOException, InterruptedException {
+        var result = new ArrayList<PullRequest>();
+        if (!github.isEnabled()) {
+            cli.testCommand("gh");
+            var proc =
+                    cli.script(
+                                    "gh",
+                                    "pr",
+                                    "list",
+                                    "--repo",
+                                    String.format("%s/%s", owner, repo),
+                                    "--state",
+                                    "open",
+                                    "--limit",
+                                    Integer.toString(Integer.MAX_VALUE),
+                                    "--json",
+                                    "url,title,body,author")
+                            .assertOk();
+            for (var node : mapper.readTree(String.join("\n", proc.out()))) {
+                result.add(pullRequest(node.path("url").asText(), node));
+            }
+            return result;
+        }
+        String cursor = null;
+        do {
+            var variables = new HashMap<String, Object>();
+            variables.put("owner", owner);
+            variables.put("repo", repo);
+            variables.put("cursor", cursor);
+            var page =
+                    github.graphql(OPEN_PULL_REQUESTS_QUERY, variables)
+                            .path("repository")
+                            .path("pullRequests");
+            for (var node : page.path("nodes")) {
+                result.add(pullRequest(node.path("url").asText(), node));
+            }
+            var pageInfo = page.path("pageInfo");
+            cursor =
+                    pageInfo.path("hasNextPage").asBoolean()
+                            ? pageInfo.path("endCursor").asText()
+                            : null;
+        } while (cursor != null);
+        Log.debugv("Found {0} open Pull Requests in {1}/{2}", result.size(), owner, repo);
+        return result;
+    }
+
+    /** Read a Pull Request as given by {@code gh} or the GraphQL API. */
+    private static PullRequest pullRequest(String url, JsonNode json) {
+        var author = json.path("author");
+        var login = author.path("login").asText("");
+        // the GraphQL API gives bots' logins without the suffix that the REST API adds
+        if ("Bot".equals(author.path("__typename").asText()) && !login.endsWith("[bot]")) {
+            login += "[bot]";
+        }
+        return new PullRequest(
+                url,
+                json.path("title").asText("").strip(),
+                json.path("body").asText("").strip(),
+                login);
+    }
+
+    private static record Fetch(Instant started, CompletableFuture<PullRequest> result) {
+        boolean isStale(Duration ttl) {
+            return result.isDone() && started.plus(ttl).isBefore(Instant.now());
+        }
+    }
+}
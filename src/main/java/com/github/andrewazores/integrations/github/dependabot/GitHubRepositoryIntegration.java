@@ -16,26 +16,38 @@
 package com.github.andrewazores.integrations.github.dependabot;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
+import java.util.zip.ZipInputStream;
 
-import com.github.andrewazores.integrations.PomUrlIntegration;
+import com.github.andrewazores.integrations.AbstractPomFileIntegration;
+import com.github.andrewazores.integrations.ExpansionContext;
+import com.github.andrewazores.integrations.github.GitHubClient;
 import com.github.andrewazores.model.GroupArtifactVersion;
-import com.github.andrewazores.scripting.CliSupport;
+import com.github.andrewazores.repository.RepositoryTransport;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
+/**
+ * Checks the dependencies of every module of a GitHub repository's default branch. The branch is
+ * downloaded once as an archive, and its POM files are read from the stream into memory, so the
+ * whole reactor is resolved from a single transfer without writing the tree to disk.
+ */
 @ApplicationScoped
-class GitHubRepositoryIntegration extends PomUrlIntegration {
+class GitHubRepositoryIntegration extends AbstractPomFileIntegration {
     private static final Pattern GH_REPO_PATTERN =
             Pattern.compile(
                     "^https?://(?:www.)?github.com/(?<owner>[\\w.-]+)/(?<repo>[\\w.-]+)/?$",
                     Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
 
-    @Inject CliSupport cli;
+    @Inject GitHubClient github;
+    @Inject RepositoryTransport transport;
 
     @Override
     public boolean test(URL url) {
@@ -45,7 +57,8 @@ class GitHubRepositoryIntegration extends PomUrlIntegration {
     }
 
     @Override
-    public List<GroupArtifactVersion> apply(URL url) throws IOException, InterruptedException {
+    public void expand(URL url, ExpansionContext context, Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
         Log.debugv("Processing GitHub repository: {0}", url);
         var m = GH_REPO_PATTERN.matcher(url.toString());
         assert m.matches();
@@ -53,11 +66,21 @@ class GitHubRepositoryIntegration extends PomUrlIntegration {
         var repo = m.group("repo");
         var repoId = String.format("%s/%s", owner, repo);
         var checkoutRef = getDefaultBranchRef(repoId);
-        var pomUrl = getPomUrl(repoId, checkoutRef);
-        return super.apply(pomUrl);
+        Map<String, byte[]> poms;
+        try (var archive = openArchive(repoId, checkoutRef, context.insecure())) {
+            poms = readPoms(archive);
+        }
+        try {
+            processReactor(poms, url.toURI(), context, sink);
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
     }
 
     private String getDefaultBranchRef(String repo) throws IOException, InterruptedException {
+        if (github.isEnabled()) {
+            return github.get(String.format("/repos/%s", repo)).path("default_branch").asText();
+        }
         var proc =
                 cli.script(
                                 "gh",
@@ -70,13 +93,33 @@ class GitHubRepositoryIntegration extends PomUrlIntegration {
         return proc.out().get(0);
     }
 
-    private URL getPomUrl(String repo, String checkoutRef) {
-        try {
-            return new URL(
-                    String.format(
-                            "https://raw.githubusercontent.com/%s/%s/pom.xml", repo, checkoutRef));
-        } catch (MalformedURLException e) {
-            throw new RuntimeException(e);
+    private InputStream openArchive(String repo, String checkoutRef, boolean insecure)
+            throws IOException, InterruptedException {
+        if (github.isEnabled()) {
+            return github.open(String.format("/repos/%s/zipball/%s", repo, checkoutRef));
+        }
+        return transport.open(
+                String.format("https://codeload.github.com/%s/zip/%s", repo, checkoutRef),
+                insecure);
+    }
+
+    /**
+     * Read the POM files out of a repository archive, by their paths relative to the repository
+     * root. Every other entry is skipped over as it is streamed.
+     */
+    static Map<String, byte[]> readPoms(InputStream archive) throws IOException {
+        var poms = new HashMap<String, byte[]>();
+        try (var zip = new ZipInputStream(archive)) {
+            for (var entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                // every entry is within a single owner-repo-commit/ directory
+                var name = entry.getName();
+                var path = name.substring(name.indexOf('/') + 1);
+                if (!entry.isDirectory() && ("pom.xml".equals(path) || path.endsWith("/pom.xml"))) {
+                    poms.put(path, zip.readAllBytes());
+                }
+            }
         }
+        Log.debugv("Read {0} POM files from archive", poms.size());
+        return poms;
     }
 }
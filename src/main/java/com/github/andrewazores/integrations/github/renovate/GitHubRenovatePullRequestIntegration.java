@@ -23,14 +23,17 @@ import java.util.Optional;
 import java.util.regex.Pattern;
 
 import com.github.andrewazores.integrations.SourceIntegration;
+import com.github.andrewazores.integrations.UnrecognizedSourceException;
+import com.github.andrewazores.integrations.github.PullRequest;
+import com.github.andrewazores.integrations.github.PullRequestParser;
+import com.github.andrewazores.integrations.github.PullRequestService;
 import com.github.andrewazores.model.GroupArtifactVersion;
-import com.github.andrewazores.scripting.CliSupport;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
 @ApplicationScoped
-class GitHubRenovatePullRequestIntegration implements SourceIntegration {
+class GitHubRenovatePullRequestIntegration implements SourceIntegration, PullRequestParser {
     private static final Pattern GH_PR_TITLE_PATTERN =
             Pattern.compile(
                     "^(?:fix|chore)\\(deps\\): update dependency"
@@ -44,95 +47,79 @@ class GitHubRenovatePullRequestIntegration implements SourceIntegration {
                             + " \\| `[^`]+` → `(?<to>[^`]+)` \\|",
                     Pattern.MULTILINE);
 
-    @Inject protected CliSupport cli;
+    @Inject protected PullRequestService pullRequests;
 
     @Override
     public boolean test(URL url) {
-        try {
-            return ("http".equals(url.getProtocol()) || "https".equals(url.getProtocol()))
-                    && "github.com".equals(url.getHost())
-                    && url.getPath().matches("/[\\w._-]+/[\\w._-]+/pull/[\\d]+/?");
-        } catch (Exception e) {
-            Log.trace(e);
-            return false;
-        }
+        return PullRequestService.isPullRequest(url);
     }
 
     @Override
     public List<GroupArtifactVersion> apply(URL url) throws IOException, InterruptedException {
-        return matchesTitle(url)
-                .or(
-                        () -> {
-                            try {
-                                return matchesBody(url);
-                            } catch (IOException | InterruptedException e) {
-                                Log.error(e);
-                                return Optional.empty();
-                            }
-                        })
-                .orElseThrow(
-                        () ->
-                                new RuntimeException(
-                                        String.format(
-                                                "GitHub PR URL \"%s\" was not understandable. Is"
-                                                        + " this a Renovate Pull Request?",
-                                                url)));
+        var result = parse(pullRequests.get(url));
+        if (result.isEmpty()) {
+            throw new UnrecognizedSourceException(
+                    String.format(
+                            "GitHub PR URL \"%s\" was not understandable. Is this a Renovate Pull"
+                                    + " Request?",
+                            url));
+        }
+        return result;
     }
 
-    private Optional<List<GroupArtifactVersion>> matchesTitle(URL url)
-            throws IOException, InterruptedException {
-        cli.testCommand("gh");
-        var proc =
-                cli.script("gh", "pr", "view", url.toString(), "--json", "title", "--jq", ".title");
-        Log.trace(proc.out().toString());
-        proc.assertOk();
-        var matcher = GH_PR_TITLE_PATTERN.matcher(proc.out().get(0));
-        if (!matcher.matches()) {
-            Log.debugv(
-                    "GitHub PR URL {0} was not understandable. Got title: {1}. Is"
-                            + " this a Renovate Pull Request? Does the title contain a single"
-                            + " GroupId:ArtifactId or a Maven property for upgrading a"
-                            + " dependency group?",
-                    url, proc.out().get(0));
-            return Optional.empty();
-        }
-        var group = matcher.group("group");
-        var artifact = matcher.group("artifact");
-        var version = matcher.group("version");
-        Log.debugv(
-                "Interpreted GitHub PR title \"{0}\" as request for {1}:{2}:{3}",
-                proc.out().get(0), group, artifact, version);
-        return Optional.of(List.of(new GroupArtifactVersion(group, artifact, version)));
+    @Override
+    public String bot() {
+        return "renovate";
     }
 
-    private Optional<List<GroupArtifactVersion>> matchesBody(URL url)
-            throws IOException, InterruptedException {
-        cli.testCommand("gh");
-        var proc =
-                cli.script("gh", "pr", "view", url.toString(), "--json", "body", "--jq", ".body");
-        var body = String.join("\n", proc.out()).strip();
-        Log.trace(body);
-        proc.assertOk();
-        var matcher = GH_PR_BODY_PATTERN.matcher(body);
-        var result = new ArrayList<GroupArtifactVersion>();
-        while (true) {
-            boolean found = matcher.find();
-            if (!found) break;
-            var group = matcher.group("group");
-            var artifact = matcher.group("artifact");
-            var version = matcher.group("to");
-            var gav = new GroupArtifactVersion(group, artifact, version);
-            Log.tracev("Found {0}", gav);
-            result.add(gav);
+    @Override
+    public List<GroupArtifactVersion> parse(PullRequest pr) {
+        var gav = parseTitle(pr.title());
+        if (gav.isPresent()) {
+            Log.debugv(
+                    "Interpreted GitHub PR title \"{0}\" as request for {1}",
+                    pr.title(), gav.get());
+            return List.of(gav.get());
         }
+        Log.debugv(
+                "GitHub PR URL {0} was not understandable. Got title: {1}. Is"
+                        + " this a Renovate Pull Request? Does the title contain a single"
+                        + " GroupId:ArtifactId or a Maven property for upgrading a"
+                        + " dependency group?",
+                pr.url(), pr.title());
+        var result = parseBody(pr.body());
         if (result.isEmpty()) {
             Log.debugv(
                     "GitHub PR URL {0} was not understandable. Got body: {1}. Is this a Renovate"
                             + " Pull Request? Does the body contain a table with"
                             + " '[groupId:artifactId](...) | `from` → `to` |' format?",
-                    url, body);
+                    pr.url(), pr.body());
+        }
+        return result;
+    }
+
+    static Optional<GroupArtifactVersion> parseTitle(String title) {
+        var matcher = GH_PR_TITLE_PATTERN.matcher(title);
+        if (!matcher.matches()) {
             return Optional.empty();
         }
-        return Optional.of(result);
+        return Optional.of(
+                new GroupArtifactVersion(
+                        matcher.group("group"),
+                        matcher.group("artifact"),
+                        matcher.group("version")));
+    }
+
+    static List<GroupArtifactVersion> parseBody(String body) {
+        var matcher = GH_PR_BODY_PATTERN.matcher(body);
+        var result = new ArrayList<GroupArtifactVersion>();
+        while (matcher.find()) {
+            var gav =
+                    new GroupArtifactVersion(
+                            matcher.group("group"), matcher.group("artifact"), matcher.group("to"));
+            Log.tracev("Found {0}", gav);
+            result.add(gav);
+        }
+        return result;
     }
 }
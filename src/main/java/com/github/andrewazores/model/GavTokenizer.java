@@ -0,0 +1,146 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+/**
+ * Classifies inputs as URLs or GAVs and splits {@code groupId:artifactId[:version]} strings. Each
+ * GAV component is a non-empty run of ASCII letters, digits, {@code .}, {@code _} or {@code -}.
+ * Inputs are scanned in place without regular expressions, so only the resulting component strings
+ * are allocated, and telling a GAV from a URL never relies on a URL parse failing.
+ */
+public final class GavTokenizer {
+
+    /** Schemes that {@link java.net.URL} has a protocol handler for. */
+    private static final String[] URL_SCHEMES = {
+        "http", "https", "file", "jar", "ftp", "jrt", "mailto"
+    };
+
+    private GavTokenizer() {}
+
+    /**
+     * Whether the input starts with a URL scheme. Inputs such as {@code org.slf4j:slf4j-api} are
+     * syntactically valid URIs, so only schemes with a URL protocol handler are recognized.
+     */
+    public static boolean isUrl(String input) {
+        int colon = input.indexOf(':');
+        if (colon <= 0) {
+            return false;
+        }
+        for (var scheme : URL_SCHEMES) {
+            if (scheme.length() == colon && input.regionMatches(true, 0, scheme, 0, colon)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse a {@code groupId:artifactId[:version]} string. The version is {@code null} if absent.
+     *
+     * @throws IllegalArgumentException if the input is not a GAV
+     */
+    public static GroupArtifactVersion parse(String gav) {
+        int group = field(gav, 0);
+        int artifact = group < 0 ? -1 : token(gav, group + 1);
+        if (artifact <= group + 1) {
+            throw unparseable(gav);
+        }
+        if (artifact == gav.length()) {
+            return new GroupArtifactVersion(
+                    gav.substring(0, group), gav.substring(group + 1), null);
+        }
+        int version = gav.charAt(artifact) == ':' ? token(gav, artifact + 1) : -1;
+        if (version <= artifact + 1 || version != gav.length()) {
+            throw unparseable(gav);
+        }
+        return new GroupArtifactVersion(
+                gav.substring(0, group),
+                gav.substring(group + 1, artifact),
+                gav.substring(artifact + 1));
+    }
+
+    private static IllegalArgumentException unparseable(String gav) {
+        return new IllegalArgumentException(String.format("GAV %s was not parseable", gav));
+    }
+
+    /**
+     * Parse a line of {@code mvn dependency:list} output, {@code
+     * groupId:artifactId:type:version[:scope]} after optional indentation. Anything after the
+     * version is ignored.
+     *
+     * @return the GAV, or {@code null} if the line does not list a dependency
+     */
+    public static GroupArtifactVersion parseDependency(String line) {
+        int start = 0;
+        while (start < line.length() && isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        int group = field(line, start);
+        int artifact = group < 0 ? -1 : field(line, group + 1);
+        int type = artifact < 0 ? -1 : field(line, artifact + 1);
+        int version = type < 0 ? -1 : token(line, type + 1);
+        if (version <= type + 1) {
+            return null;
+        }
+        for (int i = version; i < line.length(); i++) {
+            if (isLineTerminator(line.charAt(i))) {
+                return null;
+            }
+        }
+        return new GroupArtifactVersion(
+                line.substring(start, group),
+                line.substring(group + 1, artifact),
+                line.substring(type + 1, version));
+    }
+
+    /**
+     * The end of a non-empty run of GAV characters starting at {@code from} and followed by a
+     * {@code :} separator, or -1 if there is none.
+     */
+    private static int field(String s, int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int end = token(s, from);
+        return end > from && end < s.length() && s.charAt(end) == ':' ? end : -1;
+    }
+
+    /** The end of the run of GAV characters starting at {@code from}. */
+    private static int token(String s, int from) {
+        int i = from;
+        while (i < s.length() && isGavChar(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    static boolean isGavChar(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= 'A' && c <= 'Z')
+                || (c >= '0' && c <= '9')
+                || c == '.'
+                || c == '_'
+                || c == '-';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
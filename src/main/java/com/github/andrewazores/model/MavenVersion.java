@@ -0,0 +1,286 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A version string split into comparable components, ordered the same way as Maven's {@code
+ * ComparableVersion}: numeric components compare numerically, well-known qualifiers are ordered
+ * {@code alpha < beta < milestone < rc < snapshot < (release) < sp}, unknown qualifiers sort after
+ * releases, and trailing zeroes and release qualifiers ({@code 1.0.0}, {@code 1-final}) are
+ * insignificant. Versions are tokenized once, so comparisons do not allocate.
+ */
+public final class MavenVersion implements Comparable<MavenVersion> {
+
+    private static final List<String> QUALIFIERS =
+            List.of("alpha", "beta", "milestone", "rc", "snapshot", "", "sp");
+    private static final int RELEASE = QUALIFIERS.indexOf("");
+
+    private final String value;
+    private final ListItem items;
+
+    private MavenVersion(String value, ListItem items) {
+        this.value = value;
+        this.items = items;
+    }
+
+    public static MavenVersion parse(String version) {
+        var lower = version.toLowerCase(Locale.ENGLISH);
+        var root = new ListItem();
+        var list = root;
+        Deque<ListItem> stack = new ArrayDeque<>();
+        stack.push(list);
+        boolean digit = false;
+        int start = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '.' || c == '-') {
+                list.add(i == start ? IntItem.ZERO : item(digit, lower.substring(start, i)));
+                start = i + 1;
+                if (c == '-') {
+                    list = list.child();
+                    stack.push(list);
+                }
+            } else if (Character.isDigit(c)) {
+                if (!digit && i > start) {
+                    // a qualifier directly followed by a number, ex. "alpha1" or "rc2"
+                    list.add(new StringItem(lower.substring(start, i), true));
+                    start = i;
+                    list = list.child();
+                    stack.push(list);
+                }
+                digit = true;
+            } else {
+                if (digit && i > start) {
+                    list.add(item(true, lower.substring(start, i)));
+                    start = i;
+                    list = list.child();
+                    stack.push(list);
+                }
+                digit = false;
+            }
+        }
+        if (lower.length() > start) {
+            list.add(item(digit, lower.substring(start)));
+        }
+        while (!stack.isEmpty()) {
+            stack.pop().normalize();
+        }
+        return new MavenVersion(version, root);
+    }
+
+    private static Item item(boolean digit, String token) {
+        return digit ? new IntItem(token) : new StringItem(token, false);
+    }
+
+    @Override
+    public int compareTo(MavenVersion other) {
+        return items.compareTo(other.items);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof MavenVersion other && compareTo(other) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return items.hashCode();
+    }
+
+    /** The version string exactly as it was parsed. */
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private interface Item {
+        /** Compare against another item, where {@code null} stands for a missing component. */
+        int compareTo(Item other);
+
+        boolean isNull();
+    }
+
+    private static final class IntItem implements Item {
+        static final IntItem ZERO = new IntItem("0");
+
+        // decimal digits without leading zeroes, so that values of any size compare by length
+        // then lexically
+        private final String digits;
+
+        IntItem(String token) {
+            int i = 0;
+            while (i < token.length() - 1 && token.charAt(i) == '0') {
+                i++;
+            }
+            this.digits = token.substring(i);
+        }
+
+        @Override
+        public boolean isNull() {
+            return "0".equals(digits);
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            if (other == null) {
+                return isNull() ? 0 : 1;
+            }
+            if (other instanceof IntItem i) {
+                int c = Integer.compare(digits.length(), i.digits.length());
+                return c != 0 ? c : digits.compareTo(i.digits);
+            }
+            // 1.1 > 1-sp and 1.1 > 1-1
+            return 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof IntItem i && digits.equals(i.digits);
+        }
+
+        @Override
+        public int hashCode() {
+            return digits.hashCode();
+        }
+    }
+
+    private static final class StringItem implements Item {
+        private final int rank;
+        // only set for qualifiers that are not well-known, which sort after all well-known ones
+        private final String unknown;
+
+        StringItem(String token, boolean followedByDigit) {
+            if (followedByDigit && token.length() == 1) {
+                token =
+                        switch (token.charAt(0)) {
+                            case 'a' -> "alpha";
+                            case 'b' -> "beta";
+                            case 'm' -> "milestone";
+                            default -> token;
+                        };
+            }
+            token =
+                    switch (token) {
+                        case "ga", "final", "release" -> "";
+                        case "cr" -> "rc";
+                        default -> token;
+                    };
+            int index = QUALIFIERS.indexOf(token);
+            this.rank = index < 0 ? QUALIFIERS.size() : index;
+            this.unknown = index < 0 ? token : null;
+        }
+
+        @Override
+        public boolean isNull() {
+            return rank == RELEASE;
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            if (other == null) {
+                return Integer.compare(rank, RELEASE);
+            }
+            if (other instanceof StringItem s) {
+                int c = Integer.compare(rank, s.rank);
+                return c != 0 || unknown == null ? c : unknown.compareTo(s.unknown);
+            }
+            // 1.any < 1.1 and 1.any < 1-1
+            return -1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StringItem s && compareTo(s) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return unknown == null ? rank : unknown.hashCode();
+        }
+    }
+
+    private static final class ListItem implements Item {
+        private final List<Item> items = new ArrayList<>();
+
+        void add(Item item) {
+            items.add(item);
+        }
+
+        ListItem child() {
+            var child = new ListItem();
+            items.add(child);
+            return child;
+        }
+
+        /** Remove insignificant trailing components, ex. {@code 1.0.0 -> 1}. */
+        void normalize() {
+            for (int i = items.size() - 1; i >= 0; i--) {
+                var last = items.get(i);
+                if (last.isNull()) {
+                    items.remove(i);
+                } else if (!(last instanceof ListItem)) {
+                    break;
+                }
+            }
+        }
+
+        @Override
+        public boolean isNull() {
+            return items.isEmpty();
+        }
+
+        @Override
+        public int compareTo(Item other) {
+            if (other == null) {
+                return items.isEmpty() ? 0 : items.get(0).compareTo(null);
+            }
+            if (other instanceof IntItem) {
+                // 1-1 < 1.1
+                return -1;
+            }
+            if (other instanceof StringItem) {
+                // 1-1 > 1-sp
+                return 1;
+            }
+            var others = ((ListItem) other).items;
+            for (int i = 0; i < Math.max(items.size(), others.size()); i++) {
+                var l = i < items.size() ? items.get(i) : null;
+                var r = i < others.size() ? others.get(i) : null;
+                int c = l == null ? (r == null ? 0 : -r.compareTo(null)) : l.compareTo(r);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ListItem l && compareTo(l) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return items.hashCode();
+        }
+    }
+}
@@ -15,81 +15,186 @@
  */
 package com.github.andrewazores.model;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
-import com.github.andrewazores.util.XmlParser;
-import io.quarkus.logging.Log;
 import io.quarkus.runtime.annotations.RegisterForReflection;
-import org.w3c.dom.Node;
-import org.xml.sax.SAXException;
 
 @RegisterForReflection
 public record MavenVersioning(String latest, String release, List<String> versions) {
+    private static final XMLInputFactory XML_INPUT_FACTORY = createInputFactory();
+
     public MavenVersioning(String latest, String release, List<String> versions) {
         this.latest = latest;
         this.release = release;
-        this.versions = Collections.unmodifiableList(new ArrayList<>(versions));
+        this.versions = new VersionList(versions);
     }
 
+    /** Whether the given version, or a qualified variant of it, is listed. */
     public boolean contains(String version) {
-        return versions.stream().anyMatch(v -> versionCompare(version, v));
+        return bestMatch(version).isPresent();
     }
 
     public Optional<String> bestMatch(GroupArtifactVersion gav) {
-        return versions.stream().filter(v -> versionCompare(gav.version(), v)).findFirst();
+        return bestMatch(gav.version());
+    }
+
+    /**
+     * The listed version matching the given one exactly, otherwise its semantically highest
+     * qualified variant, ex. {@code 1.2.3.Final} or {@code 1.2.3-redhat-00001} for {@code 1.2.3}.
+     */
+    public Optional<String> bestMatch(String version) {
+        return ((VersionList) versions).bestMatch(version);
+    }
+
+    /**
+     * The listed version semantically closest to the given one: the highest version that is not
+     * newer than it, or the oldest version if every listed version is newer.
+     */
+    public Optional<String> nearest(String version) {
+        return ((VersionList) versions).nearest(version);
     }
 
     public MavenVersioning limit(int count) {
-        if (count <= 0) {
+        if (count <= 0 || count >= versions.size()) {
             return this;
         }
         return new MavenVersioning(latest, release, versions.subList(0, count));
     }
 
-    public static MavenVersioning from(String url)
-            throws IOException, ParserConfigurationException, SAXException {
-        var factory = DocumentBuilderFactory.newDefaultInstance();
-        var documentBuilder = factory.newDocumentBuilder();
+    public static MavenVersioning parse(InputStream stream) throws IOException {
+        return parse(stream, -1);
+    }
+
+    /**
+     * Parse a maven-metadata.xml document, retaining only the newest {@code limit} versions. Older
+     * versions are discarded while streaming, so memory use is bounded by the limit rather than by
+     * the size of the listing. A non-positive limit retains all versions.
+     */
+    public static MavenVersioning parse(InputStream stream, int limit) throws IOException {
+        try {
+            var reader = XML_INPUT_FACTORY.createXMLStreamReader(stream);
+            try {
+                return parse(reader, limit);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IOException("Malformed maven-metadata.xml", e);
+        }
+    }
 
-        Log.debugv("Opening {0} ...", url);
-        if (Log.isDebugEnabled()) {
-            // TODO do this without opening the URL stream twice
-            try (var stream = new BufferedInputStream(new URL(url).openStream())) {
-                Log.debug(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+    private static MavenVersioning parse(XMLStreamReader reader, int limit)
+            throws IOException, XMLStreamException {
+        // element depth: 1 = metadata, 2 = versioning, 3 = latest/release/versions, 4 = version
+        int depth = 0;
+        boolean inVersioning = false;
+        boolean inVersions = false;
+        boolean sawVersioning = false;
+        boolean sawVersions = false;
+        String latest = "N/A";
+        String release = "N/A";
+        var versions = new TailBuffer(limit);
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                var name = reader.getLocalName();
+                if (depth == 2 && "versioning".equals(name)) {
+                    inVersioning = true;
+                    sawVersioning = true;
+                } else if (inVersioning && depth == 3) {
+                    switch (name) {
+                        case "latest" -> {
+                            latest = reader.getElementText();
+                            depth--;
+                        }
+                        case "release" -> {
+                            release = reader.getElementText();
+                            depth--;
+                        }
+                        case "versions" -> {
+                            inVersions = true;
+                            sawVersions = true;
+                        }
+                        default -> {}
+                    }
+                } else if (inVersions && depth == 4 && "version".equals(name)) {
+                    versions.add(reader.getElementText());
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (depth == 3) {
+                    inVersions = false;
+                } else if (depth == 2 && inVersioning) {
+                    break;
+                }
+                depth--;
             }
         }
-        var xmlDoc = documentBuilder.parse(url);
-
-        var root = xmlDoc.getDocumentElement();
-
-        var versioning = XmlParser.getChild(root, "versioning").orElseThrow();
-        var latest =
-                XmlParser.getChild(versioning, "latest").map(Node::getTextContent).orElse("N/A");
-        var release =
-                XmlParser.getChild(versioning, "release").map(Node::getTextContent).orElse("N/A");
-        var versions = XmlParser.getChild(versioning, "versions").orElseThrow();
-        var versionList =
-                new ArrayList<>(
-                        XmlParser.getChildren(versions, "version").stream()
-                                .map(Node::getTextContent)
-                                .toList());
-        Collections.reverse(versionList);
-
-        return new MavenVersioning(latest, release, versionList);
+        if (!sawVersioning || !sawVersions) {
+            throw new IOException("maven-metadata.xml does not contain a versions listing");
+        }
+        return new MavenVersioning(latest, release, versions.newestFirst());
     }
 
-    private static boolean versionCompare(String request, String found) {
-        return found.startsWith(String.format("%s-", request))
-                || found.startsWith(String.format("%s.", request));
+    private static XMLInputFactory createInputFactory() {
+        var factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * Collects versions in document (oldest-first) order. When bounded, only the most recently
+     * added {@code capacity} versions are kept in a fixed-size ring.
+     */
+    private static class TailBuffer {
+        private final List<String> unbounded;
+        private final String[] ring;
+        private int next;
+        private int size;
+
+        TailBuffer(int capacity) {
+            if (capacity > 0) {
+                this.unbounded = null;
+                this.ring = new String[capacity];
+            } else {
+                this.unbounded = new ArrayList<>();
+                this.ring = null;
+            }
+        }
+
+        void add(String version) {
+            if (ring == null) {
+                unbounded.add(version);
+                return;
+            }
+            ring[next] = version;
+            next = (next + 1) % ring.length;
+            size = Math.min(size + 1, ring.length);
+        }
+
+        List<String> newestFirst() {
+            if (ring == null) {
+                Collections.reverse(unbounded);
+                return unbounded;
+            }
+            var out = new ArrayList<String>(size);
+            for (int i = 1; i <= size; i++) {
+                out.add(ring[Math.floorMod(next - i, ring.length)]);
+            }
+            return out;
+        }
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of version strings in repository listing order, with a lookup index that is built
+ * on first use. The index keeps the versions sorted both lexically, for exact and qualifier-prefix
+ * lookups, and semantically, for nearest-version lookups, so each lookup is a binary search rather
+ * than a scan of the listing.
+ */
+final class VersionList extends AbstractList<String> implements RandomAccess {
+
+    private final String[] versions;
+    private volatile Index index;
+
+    VersionList(Collection<String> versions) {
+        this.versions = versions.toArray(String[]::new);
+    }
+
+    @Override
+    public String get(int i) {
+        return versions[i];
+    }
+
+    @Override
+    public int size() {
+        return versions.length;
+    }
+
+    /**
+     * The exact version if it is listed, otherwise the semantically highest qualified variant of
+     * it, ex. {@code 1.2.3.Final} or {@code 1.2.3-redhat-00001} for {@code 1.2.3}.
+     */
+    Optional<String> bestMatch(String version) {
+        var index = index();
+        if (index.find(version) >= 0) {
+            return Optional.of(version);
+        }
+        MavenVersion best = index.highestWithPrefix(version + '.', null);
+        best = index.highestWithPrefix(version + '-', best);
+        return Optional.ofNullable(best).map(MavenVersion::toString);
+    }
+
+    /**
+     * The semantically highest listed version that is not newer than the given version, or the
+     * oldest listed version if all of them are newer.
+     */
+    Optional<String> nearest(String version) {
+        var semantic = index().semantic;
+        if (semantic.length == 0) {
+            return Optional.empty();
+        }
+        int i = Arrays.binarySearch(semantic, MavenVersion.parse(version));
+        if (i < 0) {
+            int insertion = -i - 1;
+            i = insertion > 0 ? insertion - 1 : 0;
+        }
+        return Optional.of(semantic[i].toString());
+    }
+
+    private Index index() {
+        var index = this.index;
+        if (index == null) {
+            // benign race: concurrent callers may each build an identical index
+            index = new Index(versions);
+            this.index = index;
+        }
+        return index;
+    }
+
+    private static final class Index {
+        private final String[] lexical;
+        private final MavenVersion[] parsed;
+        private final MavenVersion[] semantic;
+
+        Index(String[] versions) {
+            this.lexical = versions.clone();
+            Arrays.sort(lexical);
+            this.parsed = new MavenVersion[lexical.length];
+            for (int i = 0; i < lexical.length; i++) {
+                parsed[i] = MavenVersion.parse(lexical[i]);
+            }
+            this.semantic = parsed.clone();
+            Arrays.sort(semantic, Comparator.naturalOrder());
+        }
+
+        int find(String version) {
+            return Arrays.binarySearch(lexical, version);
+        }
+
+        MavenVersion highestWithPrefix(String prefix, MavenVersion best) {
+            // versions sharing a prefix are contiguous in lexical order
+            int i = Arrays.binarySearch(lexical, prefix);
+            for (i = i < 0 ? -i - 1 : i; i < lexical.length && lexical[i].startsWith(prefix); i++) {
+                if (best == null || parsed[i].compareTo(best) > 0) {
+                    best = parsed[i];
+                }
+            }
+            return best;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.output;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import com.github.andrewazores.ProcessResult;
+import com.github.andrewazores.model.GroupArtifactVersion;
+
+/**
+ * Report for document-style formats which can only be written once every result is known. Results
+ * are retained in the order they were delivered.
+ */
+class BufferedReport implements OutputReporter.Report {
+
+    private final Map<GroupArtifactVersion, ProcessResult> results = new LinkedHashMap<>();
+    private final String repoRoot;
+    private final BiConsumer<Map<GroupArtifactVersion, ProcessResult>, String> writer;
+
+    BufferedReport(
+            String repoRoot, BiConsumer<Map<GroupArtifactVersion, ProcessResult>, String> writer) {
+        this.repoRoot = repoRoot;
+        this.writer = writer;
+    }
+
+    @Override
+    public void accept(GroupArtifactVersion gav, ProcessResult result) {
+        results.put(gav, result);
+    }
+
+    @Override
+    public void finish() {
+        writer.accept(results, repoRoot);
+    }
+}
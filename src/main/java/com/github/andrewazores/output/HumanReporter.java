@@ -15,11 +15,10 @@
  */
 package com.github.andrewazores.output;
 
-import java.util.Map;
+import java.text.MessageFormat;
 
 import com.github.andrewazores.ProcessResult;
 import com.github.andrewazores.model.GroupArtifactVersion;
-import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 
 @ApplicationScoped
@@ -31,57 +30,77 @@ class HumanReporter implements OutputReporter {
     }
 
     @Override
-    public void accept(Map<GroupArtifactVersion, ProcessResult> results, String repoRoot) {
-        results.entrySet()
-                .forEach(
-                        entry -> {
-                            var gav = entry.getKey();
-                            boolean exactMatch =
-                                    !(entry.getKey().version() == null
-                                            || "null".equals(entry.getKey().version()));
-                            if (exactMatch) {
-                                if (entry.getValue().available()) {
-                                    Log.infov(
-                                            "{0}:{1}:{2} is available as {3} in {4}",
-                                            gav.groupId(),
-                                            gav.artifactId(),
-                                            gav.version(),
-                                            entry.getValue().versioning().versions().get(0),
-                                            repoRoot);
-                                } else {
-                                    Log.errorv(
-                                            "{0}:{1}:{2} is NOT available in {3}.\n"
-                                                    + "latest:\t\t{4}\n"
-                                                    + "release:\t{5}\n"
-                                                    + "available:\n"
-                                                    + "{6}",
-                                            gav.groupId(),
-                                            gav.artifactId(),
-                                            gav.version(),
-                                            repoRoot,
-                                            entry.getValue().versioning().latest(),
-                                            entry.getValue().versioning().release(),
-                                            String.join(
-                                                    "\n",
-                                                    entry
-                                                            .getValue()
-                                                            .versioning()
-                                                            .versions()
-                                                            .stream()
-                                                            .map(v -> "\t\t" + v)
-                                                            .toList()));
-                                }
-                            } else {
-                                Log.infov(
-                                        "\nlatest:\t\t{0}\nrelease:\t{1}\navailable:\n{2}",
-                                        entry.getValue().versioning().latest(),
-                                        entry.getValue().versioning().release(),
-                                        String.join(
-                                                "\n",
-                                                entry.getValue().versioning().versions().stream()
-                                                        .map(v -> "\t\t" + v)
-                                                        .toList()));
-                            }
-                        });
+    public Report start(String repoRoot, Output output) {
+        return new Report() {
+            @Override
+            public void accept(GroupArtifactVersion gav, ProcessResult result) {
+                report(
+                        output,
+                        gav,
+                        result,
+                        result.repository() != null ? result.repository() : repoRoot);
+            }
+
+            @Override
+            public void finish() {}
+        };
+    }
+
+    private void report(
+            Output output, GroupArtifactVersion gav, ProcessResult result, String repoRoot) {
+        boolean exactMatch = !(gav.version() == null || "null".equals(gav.version()));
+        if (result.failed()) {
+            output.error(
+                    MessageFormat.format(
+                            "{0}:{1}:{2} could not be checked in {3}: {4}",
+                            gav.groupId(),
+                            gav.artifactId(),
+                            gav.version(),
+                            repoRoot,
+                            result.error()));
+        } else if (exactMatch) {
+            if (result.available()) {
+                output.info(
+                        MessageFormat.format(
+                                "{0}:{1}:{2} is available as {3} in {4}",
+                                gav.groupId(),
+                                gav.artifactId(),
+                                gav.version(),
+                                result.versioning().versions().get(0),
+                                repoRoot));
+            } else {
+                output.error(
+                        MessageFormat.format(
+                                "{0}:{1}:{2} is NOT available in {3}.\n"
+                                        + "latest:\t\t{4}\n"
+                                        + "release:\t{5}\n"
+                                        + "nearest:\t{6}\n"
+                                        + "available:\n"
+                                        + "{7}",
+                                gav.groupId(),
+                                gav.artifactId(),
+                                gav.version(),
+                                repoRoot,
+                                result.versioning().latest(),
+                                result.versioning().release(),
+                                result.versioning().nearest(gav.version()).orElse("N/A"),
+                                String.join(
+                                        "\n",
+                                        result.versioning().versions().stream()
+                                                .map(v -> "\t\t" + v)
+                                                .toList())));
+            }
+        } else {
+            output.info(
+                    MessageFormat.format(
+                            "\nlatest:\t\t{0}\nrelease:\t{1}\navailable:\n{2}",
+                            result.versioning().latest(),
+                            result.versioning().release(),
+                            String.join(
+                                    "\n",
+                                    result.versioning().versions().stream()
+                                            .map(v -> "\t\t" + v)
+                                            .toList())));
+        }
     }
 }
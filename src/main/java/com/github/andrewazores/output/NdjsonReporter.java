@@ -0,0 +1,58 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.output;
+
+import java.util.LinkedHashMap;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.ProcessResult;
+import com.github.andrewazores.model.GroupArtifactVersion;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/** Newline-delimited JSON: one self-contained JSON object per result, written as it arrives. */
+@ApplicationScoped
+class NdjsonReporter implements OutputReporter {
+
+    @Inject ObjectMapper mapper;
+
+    @Override
+    public String formatSpecifier() {
+        return "ndjson";
+    }
+
+    @Override
+    public Report start(String repoRoot, Output output) {
+        return new Report() {
+            @Override
+            public void accept(GroupArtifactVersion gav, ProcessResult result) {
+                var line = new LinkedHashMap<String, Object>();
+                line.put("repository", repoRoot);
+                line.put("gav", gav.toString());
+                line.put("result", result);
+                try {
+                    output.info(mapper.writeValueAsString(line));
+                } catch (JsonProcessingException jpe) {
+                    throw new RuntimeException(jpe);
+                }
+            }
+
+            @Override
+            public void finish() {}
+        };
+    }
+}
@@ -15,13 +15,55 @@
  */
 package com.github.andrewazores.output;
 
-import java.util.Map;
-
 import com.github.andrewazores.ProcessResult;
 import com.github.andrewazores.model.GroupArtifactVersion;
+import io.quarkus.logging.Log;
 
 public interface OutputReporter {
     String formatSpecifier();
 
-    void accept(Map<GroupArtifactVersion, ProcessResult> results, String repoRoot);
+    /** Begin a new report written to the log, which is the tool's standard output. */
+    default Report start(String repoRoot) {
+        return start(repoRoot, Output.LOG);
+    }
+
+    /**
+     * Begin a new report. Each result is passed to the returned {@link Report} as soon as it is
+     * available, and {@link Report#finish()} is called once all results have been delivered.
+     */
+    Report start(String repoRoot, Output output);
+
+    /** Where a report is written. Each message is a complete line or document. */
+    interface Output {
+        Output LOG =
+                new Output() {
+                    @Override
+                    public void info(String message) {
+                        Log.info(message);
+                    }
+
+                    @Override
+                    public void error(String message) {
+                        Log.error(message);
+                    }
+                };
+
+        void info(String message);
+
+        /** Write a message about a missing or failed result. */
+        default void error(String message) {
+            info(message);
+        }
+
+        /** Write a diagnostic about the run itself, which is not part of the report. */
+        default void warn(String message) {
+            Log.warn(message);
+        }
+    }
+
+    interface Report {
+        void accept(GroupArtifactVersion gav, ProcessResult result);
+
+        void finish();
+    }
 }
@@ -21,7 +21,6 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.github.andrewazores.ProcessResult;
 import com.github.andrewazores.model.GroupArtifactVersion;
-import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
 
 @ApplicationScoped
@@ -35,12 +34,14 @@ class XmlReporter implements OutputReporter {
     }
 
     @Override
-    public void accept(Map<GroupArtifactVersion, ProcessResult> results, String repoRoot) {
+    public Report start(String repoRoot, Output output) {
+        return new BufferedReport(repoRoot, (results, root) -> output.info(render(results, root)));
+    }
+
+    private String render(Map<GroupArtifactVersion, ProcessResult> results, String repoRoot) {
         try {
-            Log.info(
-                    mapper.writerWithDefaultPrettyPrinter()
-                            .writeValueAsString(
-                                    Map.of("repository", repoRoot, "results", results)));
+            return mapper.writerWithDefaultPrettyPrinter()
+                    .writeValueAsString(Map.of("repository", repoRoot, "results", results));
         } catch (JsonProcessingException jpe) {
             throw new RuntimeException(jpe);
         }
@@ -0,0 +1,292 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import com.github.andrewazores.model.GavTokenizer;
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.scripting.CliSupport;
+import com.github.andrewazores.util.Futures;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Works out POM dependencies by running the maven-dependency-plugin. POMs that stand alone, such as
+ * downloaded ones, and are submitted within {@code maven-gav-checker.pom-resolver.mvn-batch-window}
+ * of the first are listed together by a single run over a synthetic aggregator POM, so that Maven's
+ * startup is paid once per batch rather than once per POM. Each POM is copied into its own
+ * directory of the batch's temporary directory, where its module writes its own list, and the build
+ * fails at the end so that one POM's failure does not fail the others. A POM whose model cannot be
+ * built stops the reactor before any module is listed, so any POM left without a list is tried
+ * again by a run of its own. POMs on disk, which may have parents by relative path, are listed
+ * where they are, each by its own run, and nothing is ever written next to them. The first of
+ * {@code maven-gav-checker.pom-resolver.mvn-executables} found is run, preferring mvnd by default.
+ */
+@ApplicationScoped
+public class MvnResolver {
+
+    // relative to each POM's own directory in the batch's temporary directory
+    static final String OUTPUT_FILE = "target/maven-gav-checker-dependencies.txt";
+
+    @Inject CliSupport cli;
+
+    @ConfigProperty(name = "maven-gav-checker.transitive-deps")
+    boolean enableTransitiveDeps;
+
+    @ConfigProperty(name = "maven-gav-checker.include-scope")
+    String includeScope;
+
+    @ConfigProperty(name = "maven-gav-checker.include-parent-pom")
+    boolean includeParentPom;
+
+    @ConfigProperty(name = "maven-gav-checker.pom-resolver.mvn-executables")
+    List<String> executables;
+
+    @ConfigProperty(name = "maven-gav-checker.pom-resolver.mvn-batch-window")
+    Duration batchWindow;
+
+    private final List<Batch> open = new ArrayList<>();
+
+    /** The dependencies of a POM file, listed where it is by a run of its own. */
+    public List<GroupArtifactVersion> dependencies(Path pom)
+            throws IOException, InterruptedException {
+        if (Log.isDebugEnabled()) {
+            Log.debug(Files.readString(pom));
+        }
+        return list(pom);
+    }
+
+    /**
+     * The dependencies of a POM that does not refer to any other file, listed in a batch with any
+     * others submitted alongside.
+     */
+    public List<GroupArtifactVersion> standaloneDependencies(byte[] pom)
+            throws IOException, InterruptedException {
+        var model = Pom.parse(new ByteArrayInputStream(pom));
+        if (Log.isDebugEnabled()) {
+            Log.debug(new String(pom, StandardCharsets.UTF_8));
+        }
+        var request = new Request(pom, model.gav(), new CompletableFuture<>());
+        Batch created = null;
+        synchronized (this) {
+            if (open.stream().noneMatch(b -> b.add(request))) {
+                created = new Batch();
+                created.add(request);
+                open.add(created);
+            }
+        }
+        if (created != null) {
+            // the first request of a batch waits for others to join it, then runs it for all of
+            // them
+            try {
+                Thread.sleep(batchWindow.toMillis());
+            } finally {
+                run(created);
+            }
+        }
+        return Futures.await(request.result());
+    }
+
+    /**
+     * The dependencies of every module of the reactor with the given root POM, listed together by a
+     * single run.
+     */
+    public List<GroupArtifactVersion> reactor(Path pom) throws IOException, InterruptedException {
+        // each module of the reactor writes its own list to the file
+        return list(pom, "-DappendOutput=true");
+    }
+
+    /** List dependencies by a run over the given POM, writing the list to a temporary file. */
+    private List<GroupArtifactVersion> list(Path pom, String... options)
+            throws IOException, InterruptedException {
+        var depsFile = Files.createTempFile(getClass().getSimpleName(), ".txt");
+        try {
+            var arguments = new ArrayList<>(Arrays.asList(options));
+            arguments.add(String.format("-DoutputFile=%s", depsFile.toAbsolutePath()));
+            cli.script(command(pom, arguments.toArray(String[]::new))).assertOk();
+            return read(depsFile);
+        } finally {
+            Files.deleteIfExists(depsFile);
+        }
+    }
+
+    private void run(Batch batch) {
+        synchronized (this) {
+            open.remove(batch);
+        }
+        var requests = batch.requests();
+        Log.debugv("Listing the dependencies of {0} POMs with one mvn run", requests.size());
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory(getClass().getSimpleName());
+            var modules = new StringBuilder();
+            for (int i = 0; i < requests.size(); i++) {
+                var pom = workDir.resolve(Integer.toString(i)).resolve("pom.xml");
+                Files.createDirectories(pom.getParent());
+                Files.write(pom, requests.get(i).pom());
+                modules.append(String.format("    <module>%d</module>%n", i));
+            }
+            var aggregator = workDir.resolve("pom.xml");
+            Files.writeString(
+                    aggregator,
+                    String.format(
+                            """
+                            <project>
+                              <modelVersion>4.0.0</modelVersion>
+                              <groupId>maven-gav-checker</groupId>
+                              <artifactId>aggregator</artifactId>
+                              <version>0</version>
+                              <packaging>pom</packaging>
+                              <modules>
+                            %s  </modules>
+                            </project>
+                            """,
+                            modules),
+                    StandardCharsets.UTF_8);
+
+            var proc =
+                    cli.script(
+                            command(
+                                    aggregator,
+                                    "--fail-at-end",
+                                    String.format("-DoutputFile=%s", OUTPUT_FILE)));
+            for (int i = 0; i < requests.size(); i++) {
+                var request = requests.get(i);
+                var pom = workDir.resolve(Integer.toString(i)).resolve("pom.xml");
+                var output = pom.resolveSibling(OUTPUT_FILE);
+                if (Files.exists(output)) {
+                    request.result().complete(read(output));
+                } else if (requests.size() > 1) {
+                    // a POM that fails to build its model stops the whole reactor before any
+                    // module is listed, so each POM without a list is tried again by itself
+                    Log.debugv("Listing the dependencies of {0} by itself", request.gav());
+                    try {
+                        request.result().complete(list(pom));
+                    } catch (IOException | IllegalStateException e) {
+                        request.result().completeExceptionally(failure(request, e.getMessage()));
+                    }
+                } else {
+                    request.result()
+                            .completeExceptionally(
+                                    failure(
+                                            request,
+                                            String.format(
+                                                    "%nstdout:%n%s%nstderr:%n%s",
+                                                    String.join("\n", proc.out()),
+                                                    String.join("\n", proc.err()))));
+                }
+            }
+        } catch (Throwable t) {
+            requests.forEach(r -> r.result().completeExceptionally(t));
+        } finally {
+            if (workDir != null) {
+                delete(workDir);
+            }
+        }
+    }
+
+    private static IOException failure(Request request, String detail) {
+        return new IOException(
+                String.format("Could not list the dependencies of %s:%s", request.gav(), detail));
+    }
+
+    private String[] command(Path pom, String... options) {
+        var executable =
+                executables.stream()
+                        .filter(e -> cli.which(e).isPresent())
+                        .findFirst()
+                        .orElse("mvn");
+        var command = new ArrayList<String>();
+        command.addAll(
+                List.of(
+                        executable,
+                        "-B",
+                        "-q",
+                        "-Dsilent",
+                        String.format("-DincludeScope=%s", includeScope),
+                        String.format("-DexcludeTransitive=%b", !enableTransitiveDeps),
+                        String.format("-DincludeParents=%b", includeParentPom),
+                        "-Dmdep.outputScope=false"));
+        command.addAll(Arrays.asList(options));
+        command.add(String.format("--file=%s", pom.toAbsolutePath()));
+        command.add("dependency:list");
+        return command.toArray(String[]::new);
+    }
+
+    private static List<GroupArtifactVersion> read(Path depsFile) throws IOException {
+        if (!Files.exists(depsFile)) {
+            // ex. a reactor without dependencies
+            return List.of();
+        }
+        return Files.readAllLines(depsFile).stream()
+                .peek(l -> Log.tracev("dependency: {0}", l))
+                .map(GavTokenizer::parseDependency)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static void delete(Path dir) {
+        try (var paths = Files.walk(dir)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            Log.debugv(e, "Failed to delete {0}", dir);
+        }
+    }
+
+    private static record Request(
+            byte[] pom,
+            GroupArtifactVersion gav,
+            CompletableFuture<List<GroupArtifactVersion>> result) {}
+
+    /**
+     * The POMs to be listed by one run. A reactor cannot hold the same project twice, so those go
+     * to separate batches.
+     */
+    private static class Batch {
+        private final List<Request> requests = new ArrayList<>();
+        private final Set<GroupArtifactVersion> gavs = new HashSet<>();
+
+        boolean add(Request request) {
+            if (!gavs.add(request.gav())) {
+                return false;
+            }
+            requests.add(request);
+            return true;
+        }
+
+        List<Request> requests() {
+            return requests;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.util.XmlParser;
+import org.w3c.dom.Node;
+import org.xml.sax.SAXException;
+
+/**
+ * The parts of a POM which are needed to work out its dependencies. Elements from profiles that are
+ * {@code activeByDefault} are merged in, as Maven does when no other profile is active. Unset
+ * elements are {@code null}.
+ *
+ * @param parentRelativePath the declared parent relative path, {@code ../pom.xml} if it was not
+ *     declared, or empty if the parent must only be looked up from repositories
+ */
+public record Pom(
+        GroupArtifactVersion parent,
+        String parentRelativePath,
+        String groupId,
+        String artifactId,
+        String version,
+        String packaging,
+        Map<String, String> properties,
+        List<PomDependency> dependencies,
+        List<PomDependency> dependencyManagement,
+        List<String> modules) {
+
+    public Pom {
+        properties = Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+        dependencies = List.copyOf(dependencies);
+        dependencyManagement = List.copyOf(dependencyManagement);
+        modules = List.copyOf(modules);
+    }
+
+    /** This project's coordinates, with the groupId and version inherited from the parent. */
+    public GroupArtifactVersion gav() {
+        return new GroupArtifactVersion(
+                groupId != null || parent == null ? groupId : parent.groupId(),
+                artifactId,
+                version != null || parent == null ? version : parent.version());
+    }
+
+    public static Pom parse(InputStream stream) throws IOException {
+        Node project;
+        try {
+            project = newDocumentBuilder().parse(stream).getDocumentElement();
+        } catch (SAXException | ParserConfigurationException e) {
+            throw new IOException("Malformed pom.xml", e);
+        }
+        if (!"project".equals(project.getNodeName())) {
+            throw new IOException("Document is not a pom.xml");
+        }
+
+        var parentNode = XmlParser.getChild(project, "parent");
+        var parent =
+                parentNode
+                        .map(
+                                p ->
+                                        new GroupArtifactVersion(
+                                                text(p, "groupId"),
+                                                text(p, "artifactId"),
+                                                text(p, "version")))
+                        .orElse(null);
+        var relativePath =
+                parentNode
+                        .map(p -> XmlParser.getChild(p, "relativePath"))
+                        .map(n -> n.map(Pom::text).orElse("../pom.xml"))
+                        .orElse(null);
+
+        var properties = new LinkedHashMap<String, String>();
+        var dependencies = new ArrayList<PomDependency>();
+        var dependencyManagement = new ArrayList<PomDependency>();
+        var modules = new ArrayList<String>();
+        readBuildBase(project, properties, dependencies, dependencyManagement, modules);
+        var profiles = XmlParser.getChild(project, "profiles");
+        if (profiles.isPresent()) {
+            for (var profile : XmlParser.getChildren(profiles.get(), "profile")) {
+                var activeByDefault =
+                        XmlParser.getChild(profile, "activation")
+                                .map(a -> text(a, "activeByDefault"))
+                                .orElse(null);
+                if ("true".equals(activeByDefault)) {
+                    readBuildBase(profile, properties, dependencies, dependencyManagement, modules);
+                }
+            }
+        }
+
+        return new Pom(
+                parent,
+                relativePath,
+                text(project, "groupId"),
+                text(project, "artifactId"),
+                text(project, "version"),
+                text(project, "packaging"),
+                properties,
+                dependencies,
+                dependencyManagement,
+                modules);
+    }
+
+    /** Read the elements that may appear both at the top level and within profiles. */
+    private static void readBuildBase(
+            Node node,
+            Map<String, String> properties,
+            List<PomDependency> dependencies,
+            List<PomDependency> dependencyManagement,
+            List<String> modules) {
+        XmlParser.getChild(node, "properties")
+                .ifPresent(
+                        props -> {
+                            var children = props.getChildNodes();
+                            for (int i = 0; i < children.getLength(); i++) {
+                                var prop = children.item(i);
+                                if (prop.getNodeType() == Node.ELEMENT_NODE) {
+                                    properties.put(
+                                            prop.getNodeName(), prop.getTextContent().strip());
+                                }
+                            }
+                        });
+        dependencies.addAll(readDependencies(XmlParser.getChild(node, "dependencies")));
+        dependencyManagement.addAll(
+                readDependencies(
+                        XmlParser.getChild(node, "dependencyManagement")
+                                .flatMap(n -> XmlParser.getChild(n, "dependencies"))));
+        XmlParser.getChild(node, "modules")
+                .ifPresent(
+                        n ->
+                                XmlParser.getChildren(n, "module").stream()
+                                        .map(Pom::text)
+                                        .forEach(modules::add));
+    }
+
+    private static List<PomDependency> readDependencies(Optional<Node> dependencies) {
+        if (dependencies.isEmpty()) {
+            return List.of();
+        }
+        return XmlParser.getChildren(dependencies.get(), "dependency").stream()
+                .map(
+                        d ->
+                                new PomDependency(
+                                        text(d, "groupId"),
+                                        text(d, "artifactId"),
+                                        text(d, "version"),
+                                        text(d, "type"),
+                                        text(d, "classifier"),
+                                        text(d, "scope"),
+                                        "true".equals(text(d, "optional")),
+                                        XmlParser.getChild(d, "exclusions")
+                                                .map(e -> XmlParser.getChildren(e, "exclusion"))
+                                                .orElse(List.of())
+                                                .stream()
+                                                .map(
+                                                        e ->
+                                                                String.format(
+                                                                        "%s:%s",
+                                                                        text(e, "groupId"),
+                                                                        text(e, "artifactId")))
+                                                .toList()))
+                .toList();
+    }
+
+    private static String text(Node parent, String child) {
+        return XmlParser.getChild(parent, child).map(Pom::text).orElse(null);
+    }
+
+    private static String text(Node node) {
+        return node.getTextContent().strip();
+    }
+
+    private static DocumentBuilder newDocumentBuilder() throws ParserConfigurationException {
+        var factory = DocumentBuilderFactory.newDefaultInstance();
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        factory.setExpandEntityReferences(false);
+        return factory.newDocumentBuilder();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+
+/**
+ * A dependency declaration from a POM's {@code <dependencies>} or {@code <dependencyManagement>}.
+ * Unset optional elements are {@code null}; see {@link #type()} and {@link #scope()} for their
+ * defaults.
+ *
+ * @param exclusions excluded dependencies as {@code groupId:artifactId}, either of which may be
+ *     {@code *}
+ */
+public record PomDependency(
+        String groupId,
+        String artifactId,
+        String version,
+        String type,
+        String classifier,
+        String scope,
+        boolean optional,
+        List<String> exclusions) {
+
+    public PomDependency {
+        exclusions = List.copyOf(exclusions);
+    }
+
+    @Override
+    public String type() {
+        return type == null ? "jar" : type;
+    }
+
+    @Override
+    public String scope() {
+        return scope == null ? "compile" : scope;
+    }
+
+    /** Whether the scope was declared, rather than defaulted. */
+    public boolean hasScope() {
+        return scope != null;
+    }
+
+    /** The key Maven uses to match dependencies against dependency management entries. */
+    public String managementKey() {
+        return String.format(
+                "%s:%s:%s:%s", groupId, artifactId, type(), classifier == null ? "" : classifier);
+    }
+
+    public GroupArtifactVersion gav() {
+        return new GroupArtifactVersion(groupId, artifactId, version);
+    }
+
+    PomDependency interpolate(UnaryOperator<String> fn) {
+        return new PomDependency(
+                fn.apply(groupId),
+                fn.apply(artifactId),
+                fn.apply(version),
+                fn.apply(type),
+                fn.apply(classifier),
+                fn.apply(scope),
+                optional,
+                exclusions.stream().map(fn).toList());
+    }
+
+    /** Fill in the version, scope and exclusions from a dependency management entry. */
+    PomDependency managedBy(PomDependency managed) {
+        return new PomDependency(
+                groupId,
+                artifactId,
+                version == null ? managed.version : version,
+                type,
+                classifier,
+                scope == null ? managed.scope : scope,
+                optional,
+                exclusions.isEmpty() ? managed.exclusions : exclusions);
+    }
+}
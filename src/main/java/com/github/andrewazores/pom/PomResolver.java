@@ -0,0 +1,755 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.repository.RepositoryTransport;
+import com.github.andrewazores.util.Futures;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Works out a POM's dependencies without running Maven. Parents and imported BOMs are read from the
+ * parent's relative path where possible, then from the local Maven repository, then from the
+ * repositories being checked, then from the configured remote repositories. The most recently used
+ * released POMs are kept for the lifetime of the application, by the repositories they were
+ * searched for in, since released POMs never change.
+ *
+ * <p>Each resolution is given a {@link ResolutionContext} with the repositories being checked and a
+ * workspace of POMs, such as the modules of a reactor. Parents, BOMs and dependencies in the
+ * workspace are read from it before anywhere else, and are never kept. SNAPSHOT POMs are only kept
+ * by their context.
+ */
+@ApplicationScoped
+public class PomResolver {
+
+    private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)\\}");
+    private static final int MAX_INTERPOLATION_DEPTH = 16;
+    private static final Set<String> EXPOSED_PROPERTIES =
+            Set.of("java.version", "java.specification.version", "java.vendor");
+    private static final int MAX_KEPT_POMS = 4096;
+
+    @Inject RepositoryTransport transport;
+
+    @ConfigProperty(name = "maven-gav-checker.pom-resolver.local-repository")
+    Optional<String> localRepository;
+
+    @ConfigProperty(name = "maven-gav-checker.pom-resolver.remote-repositories")
+    List<String> remoteRepositories;
+
+    @ConfigProperty(name = "maven-gav-checker.concurrency")
+    int concurrency;
+
+    private final Map<Key, CompletableFuture<Pom>> loaded = lru(MAX_KEPT_POMS);
+    private final Map<Key, Pom> effectiveModels = lru(MAX_KEPT_POMS);
+    private ExecutorService executor;
+
+    /** Whether the given coordinates are of a SNAPSHOT, whose POM may change. */
+    public static boolean isSnapshot(GroupArtifactVersion gav) {
+        return gav.version() != null && gav.version().endsWith("-SNAPSHOT");
+    }
+
+    /**
+     * The direct dependencies of the given POM, after inheritance, interpolation and dependency
+     * management. Only dependencies in the given scope are returned, where the scope is interpreted
+     * like the maven-dependency-plugin's {@code includeScope}.
+     *
+     * @param location where the POM was read from, used to find its parent by relative path
+     * @param includeParents also return the parent POMs of each dependency
+     */
+    public List<GroupArtifactVersion> dependencies(
+            Pom pom, URI location, String includeScope, boolean includeParents)
+            throws IOException, InterruptedException {
+        return dependencies(pom, location, emptyContext(), includeScope, includeParents);
+    }
+
+    /**
+     * The direct dependencies of the given POM, resolved in the given context.
+     *
+     * @see #dependencies(Pom, URI, String, boolean)
+     */
+    public List<GroupArtifactVersion> dependencies(
+            Pom pom,
+            URI location,
+            ResolutionContext context,
+            String includeScope,
+            boolean includeParents)
+            throws IOException, InterruptedException {
+        var effective = effective(pom, location, context, new HashSet<>());
+        var result = new LinkedHashSet<GroupArtifactVersion>();
+        for (var dependency : effective.dependencies()) {
+            if (!includesScope(includeScope, dependency.scope())) {
+                continue;
+            }
+            var gav = dependency.gav();
+            assertResolved(gav, effective);
+            result.add(gav);
+            if (includeParents) {
+                var parent = load(gav, context).parent();
+                while (parent != null && result.add(parent)) {
+                    parent = load(parent, context).parent();
+                }
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Walk the transitive dependencies of the given POM breadth-first, emitting each to the sink as
+     * soon as it is mediated. The POMs of each level of the graph are loaded concurrently.
+     * Mediation follows Maven: the nearest declaration of an artifact wins, then the first declared
+     * at that depth, and the given POM's dependency management overrides the versions and scopes of
+     * transitive dependencies. Optional dependencies and those in the test and provided scopes are
+     * not transitive, and exclusions apply to everything below the dependency that declares them.
+     * Subtrees outside the given scope are not walked at all. A dependency whose own POM cannot be
+     * read is still emitted, but its dependencies are skipped.
+     *
+     * @param location where the POM was read from, used to find its parent by relative path
+     * @param includeParents also emit the parent POMs of each dependency
+     * @return whether the whole graph was walked, that is no POM had to be skipped
+     */
+    public boolean transitive(
+            Pom pom,
+            URI location,
+            String includeScope,
+            boolean includeParents,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        return transitive(pom, location, emptyContext(), includeScope, includeParents, sink);
+    }
+
+    /**
+     * Walk the transitive dependencies of the given POM, resolved in the given context. POMs that
+     * have to be skipped are reported as warnings to the context.
+     *
+     * @see #transitive(Pom, URI, String, boolean, Consumer)
+     */
+    public boolean transitive(
+            Pom pom,
+            URI location,
+            ResolutionContext context,
+            String includeScope,
+            boolean includeParents,
+            Consumer<GroupArtifactVersion> sink)
+            throws IOException, InterruptedException {
+        var root = effective(pom, location, context, new HashSet<>());
+        var management = new HashMap<String, PomDependency>();
+        root.dependencyManagement().forEach(d -> management.putIfAbsent(d.managementKey(), d));
+        var mediated = new HashSet<String>();
+        mediated.add(artifactKey(root.gav()));
+        var emitted = new HashSet<GroupArtifactVersion>();
+        boolean complete = true;
+
+        var level = new ArrayList<Node>();
+        for (var dependency : root.dependencies()) {
+            if (includesScope(includeScope, dependency.scope())) {
+                assertResolved(dependency.gav(), root);
+                level.add(new Node(dependency.gav(), dependency.scope(), dependency.exclusions()));
+            }
+        }
+        int depth = 1;
+        while (!level.isEmpty()) {
+            var winners = new ArrayList<Node>();
+            var models = new ArrayList<Future<Pom>>();
+            for (var node : level) {
+                if (mediated.add(artifactKey(node.gav()))) {
+                    winners.add(node);
+                    models.add(
+                            executor()
+                                    .submit(() -> effective(node.gav(), context, new HashSet<>())));
+                    if (emitted.add(node.gav())) {
+                        sink.accept(node.gav());
+                    }
+                }
+            }
+            Log.debugv("{0} dependencies at depth {1} of {2}", winners.size(), depth, root.gav());
+
+            var next = new ArrayList<Node>();
+            for (int i = 0; i < winners.size(); i++) {
+                var node = winners.get(i);
+                Pom model;
+                try {
+                    model = Futures.await(models.get(i));
+                } catch (IOException e) {
+                    context.warn(
+                            String.format(
+                                    "Skipping the dependencies of %s, its POM could not be read:"
+                                            + " %s",
+                                    node.gav(), e.getMessage()));
+                    complete = false;
+                    continue;
+                }
+                if (includeParents) {
+                    var parent = model.parent();
+                    while (parent != null && emitted.add(parent)) {
+                        sink.accept(parent);
+                        parent = load(parent, context).parent();
+                    }
+                }
+                for (var dependency : model.dependencies()) {
+                    if (dependency.optional() || node.excludes(dependency)) {
+                        continue;
+                    }
+                    var managed = management.get(dependency.managementKey());
+                    var scope = transitiveScope(node.scope(), dependency.scope());
+                    if (managed != null && managed.hasScope() && scope != null) {
+                        scope = managed.scope();
+                    }
+                    if (scope == null || !includesScope(includeScope, scope)) {
+                        continue;
+                    }
+                    var gav =
+                            managed == null || managed.version() == null
+                                    ? dependency.gav()
+                                    : new GroupArtifactVersion(
+                                            dependency.groupId(),
+                                            dependency.artifactId(),
+                                            managed.version());
+                    try {
+                        assertResolved(gav, model);
+                    } catch (IOException e) {
+                        context.warn(e.getMessage());
+                        complete = false;
+                        continue;
+                    }
+                    var exclusions = new ArrayList<>(node.exclusions());
+                    exclusions.addAll(dependency.exclusions());
+                    next.add(new Node(gav, scope, exclusions));
+                }
+            }
+            level = next;
+            depth++;
+        }
+        return complete;
+    }
+
+    /**
+     * The effective model of the given POM: inherited from its parents, with expressions
+     * interpolated, BOMs imported, and dependency versions and scopes filled in from dependency
+     * management.
+     */
+    public Pom effective(Pom pom, URI location) throws IOException, InterruptedException {
+        return effective(pom, location, emptyContext(), new HashSet<>());
+    }
+
+    /**
+     * The content of the given POM's parents that are read by relative path, nearest first, which a
+     * resolution reads besides the POM itself and the repositories. The parents are kept by the
+     * context, so resolving the POM in it does not read them again. If the first parent that is not
+     * read by relative path is a SNAPSHOT, the context is marked as using SNAPSHOTs.
+     */
+    public List<byte[]> relativeParents(Pom pom, URI location, ResolutionContext context)
+            throws InterruptedException {
+        var result = new ArrayList<byte[]>();
+        var chain = new HashSet<GroupArtifactVersion>();
+        while (pom.parent() != null
+                && chain.add(pom.gav())
+                && !context.workspace().containsKey(pom.parent())) {
+            var parentLocation = location == null ? null : relativeParent(pom, location, context);
+            var relative =
+                    parentLocation == null
+                            ? null
+                            : readRelative(pom.parent(), parentLocation, context);
+            if (relative == null) {
+                if (isSnapshot(pom.parent())) {
+                    context.markSnapshot();
+                }
+                break;
+            }
+            result.add(relative.content());
+            pom = relative.pom();
+            location = parentLocation;
+        }
+        return result;
+    }
+
+    /** Load the POM for the given coordinates from the local or remote repositories. */
+    public Pom load(GroupArtifactVersion gav) throws IOException, InterruptedException {
+        return load(gav, emptyContext());
+    }
+
+    private Pom load(GroupArtifactVersion gav, ResolutionContext context)
+            throws IOException, InterruptedException {
+        var local = context.workspace().get(gav);
+        if (local != null) {
+            return local;
+        }
+        if (isSnapshot(gav)) {
+            context.markSnapshot();
+            return load(context.snapshots, gav, gav, context);
+        }
+        return load(loaded, new Key(context.repositories(), context.insecure(), gav), gav, context);
+    }
+
+    private <K> Pom load(
+            Map<K, CompletableFuture<Pom>> memo,
+            K key,
+            GroupArtifactVersion gav,
+            ResolutionContext context)
+            throws IOException, InterruptedException {
+        var created = new CompletableFuture<Pom>();
+        var existing = memo.putIfAbsent(key, created);
+        if (existing != null) {
+            return Futures.await(existing);
+        }
+        try {
+            created.complete(fetch(gav, context));
+        } catch (Exception e) {
+            created.completeExceptionally(e);
+            // failures are not cached, so that a later attempt may succeed
+            memo.remove(key, created);
+        }
+        return Futures.await(created);
+    }
+
+    /**
+     * The scope of a dependency declared with {@code scope} by a dependency in {@code parentScope},
+     * or {@code null} if it is not transitive.
+     */
+    static String transitiveScope(String parentScope, String scope) {
+        return switch (scope) {
+            case "compile" -> parentScope;
+            case "runtime" -> "compile".equals(parentScope) ? "runtime" : parentScope;
+            default -> null;
+        };
+    }
+
+    static boolean includesScope(String includeScope, String scope) {
+        return switch (includeScope == null ? "" : includeScope) {
+            case "", "test" -> true;
+            case "compile" -> Set.of("compile", "provided", "system").contains(scope);
+            case "runtime" -> Set.of("compile", "runtime").contains(scope);
+            case "provided", "system" -> includeScope.equals(scope);
+            default ->
+                    throw new IllegalArgumentException(
+                            String.format("Unknown scope \"%s\"", includeScope));
+        };
+    }
+
+    private Pom effective(
+            Pom pom, URI location, ResolutionContext context, Set<GroupArtifactVersion> importing)
+            throws IOException, InterruptedException {
+        if (!importing.add(pom.gav())) {
+            throw new IOException(String.format("Cycle in imports of %s", pom.gav()));
+        }
+        var model = interpolate(inherit(pom, location, context, new HashSet<>()));
+
+        // imported BOMs contribute the dependency management entries that are not already
+        // declared, in declaration order
+        var management = new LinkedHashMap<String, PomDependency>();
+        var imports = new ArrayList<PomDependency>();
+        for (var managed : model.dependencyManagement()) {
+            if ("import".equals(managed.scope()) && "pom".equals(managed.type())) {
+                imports.add(managed);
+            } else {
+                management.putIfAbsent(managed.managementKey(), managed);
+            }
+        }
+        for (var bom : imports) {
+            assertResolved(bom.gav(), model);
+            var imported = effective(bom.gav(), context, new HashSet<>(importing));
+            for (var managed : imported.dependencyManagement()) {
+                management.putIfAbsent(managed.managementKey(), managed);
+            }
+        }
+
+        var dependencies = new ArrayList<PomDependency>();
+        for (var dependency : model.dependencies()) {
+            var managed = management.get(dependency.managementKey());
+            dependencies.add(managed == null ? dependency : dependency.managedBy(managed));
+        }
+        return new Pom(
+                model.parent(),
+                model.parentRelativePath(),
+                model.groupId(),
+                model.artifactId(),
+                model.version(),
+                model.packaging(),
+                model.properties(),
+                dependencies,
+                List.copyOf(management.values()),
+                model.modules());
+    }
+
+    /**
+     * The effective model of a workspace or repository POM. Those from repositories are kept once
+     * computed, unless they involve a SNAPSHOT.
+     */
+    private Pom effective(
+            GroupArtifactVersion gav,
+            ResolutionContext context,
+            Set<GroupArtifactVersion> importing)
+            throws IOException, InterruptedException {
+        var local = context.workspace().get(gav);
+        if (local != null) {
+            return effective(local, null, context, importing);
+        }
+        var key = new Key(context.repositories(), context.insecure(), gav);
+        var model = effectiveModels.get(key);
+        if (model == null) {
+            // repository POMs cannot refer to the workspace, which is not part of the key
+            var isolated = context.isolated();
+            model = effective(load(gav, isolated), null, isolated, importing);
+            if (isolated.usedSnapshots()) {
+                context.markSnapshot();
+            } else {
+                effectiveModels.putIfAbsent(key, model);
+            }
+        }
+        return model;
+    }
+
+    /** Merge the parent chain into the given POM, without interpolating. */
+    private Pom inherit(
+            Pom pom, URI location, ResolutionContext context, Set<GroupArtifactVersion> chain)
+            throws IOException, InterruptedException {
+        chain.add(pom.gav());
+        if (pom.parent() == null) {
+            return pom;
+        }
+        if (chain.contains(pom.parent())) {
+            throw new IOException(String.format("Cycle in parents of %s", pom.gav()));
+        }
+        var parent = context.workspace().get(pom.parent());
+        URI parentLocation = null;
+        if (parent == null) {
+            parentLocation = location == null ? null : relativeParent(pom, location, context);
+            var relative =
+                    parentLocation == null
+                            ? null
+                            : readRelative(pom.parent(), parentLocation, context);
+            parent = relative == null ? null : relative.pom();
+        }
+        if (parent == null) {
+            parentLocation = null;
+            parent = load(pom.parent(), context);
+        }
+        var inherited = inherit(parent, parentLocation, context, chain);
+
+        var properties = new LinkedHashMap<>(inherited.properties());
+        properties.putAll(pom.properties());
+        return new Pom(
+                pom.parent(),
+                pom.parentRelativePath(),
+                pom.gav().groupId(),
+                pom.artifactId(),
+                pom.gav().version(),
+                pom.packaging(),
+                properties,
+                merge(inherited.dependencies(), pom.dependencies()),
+                merge(inherited.dependencyManagement(), pom.dependencyManagement()),
+                pom.modules());
+    }
+
+    private static List<PomDependency> merge(
+            List<PomDependency> inherited, List<PomDependency> declared) {
+        var merged = new LinkedHashMap<String, PomDependency>();
+        inherited.forEach(d -> merged.put(d.managementKey(), d));
+        declared.forEach(d -> merged.put(d.managementKey(), d));
+        return List.copyOf(merged.values());
+    }
+
+    private Pom interpolate(Pom pom) {
+        var gav = pom.gav();
+        var values = new LinkedHashMap<String, String>();
+        for (var prefix : List.of("project.", "pom.", "")) {
+            putIfNotNull(values, prefix + "groupId", gav.groupId());
+            putIfNotNull(values, prefix + "artifactId", gav.artifactId());
+            putIfNotNull(values, prefix + "version", gav.version());
+            putIfNotNull(values, prefix + "packaging", pom.packaging());
+            if (pom.parent() != null) {
+                putIfNotNull(values, prefix + "parent.groupId", pom.parent().groupId());
+                putIfNotNull(values, prefix + "parent.artifactId", pom.parent().artifactId());
+                putIfNotNull(values, prefix + "parent.version", pom.parent().version());
+            }
+        }
+        values.putAll(pom.properties());
+        UnaryOperator<String> fn = s -> interpolate(s, values, 0);
+
+        var properties = new LinkedHashMap<String, String>();
+        pom.properties().forEach((k, v) -> properties.put(k, fn.apply(v)));
+        return new Pom(
+                pom.parent(),
+                pom.parentRelativePath(),
+                fn.apply(pom.groupId()),
+                fn.apply(pom.artifactId()),
+                fn.apply(pom.version()),
+                pom.packaging(),
+                properties,
+                pom.dependencies().stream().map(d -> d.interpolate(fn)).toList(),
+                pom.dependencyManagement().stream().map(d -> d.interpolate(fn)).toList(),
+                pom.modules());
+    }
+
+    private static String interpolate(String s, Map<String, String> values, int depth) {
+        if (s == null || !s.contains("${") || depth > MAX_INTERPOLATION_DEPTH) {
+            return s;
+        }
+        var matcher = EXPRESSION.matcher(s);
+        var sb = new StringBuilder();
+        while (matcher.find()) {
+            var key = matcher.group(1);
+            var value = values.get(key);
+            if (value == null && isExposedProperty(key)) {
+                value = System.getProperty(key);
+            }
+            matcher.appendReplacement(
+                    sb,
+                    Matcher.quoteReplacement(
+                            value == null
+                                    ? matcher.group()
+                                    : interpolate(value, values, depth + 1)));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+
+    /**
+     * Whether a system property may be used to interpolate POMs. POMs may come from anyone, and
+     * resolved GAVs are reported back to whoever sent them, so environment variables and other
+     * system properties are never read in case they hold secrets.
+     */
+    private static boolean isExposedProperty(String key) {
+        return EXPOSED_PROPERTIES.contains(key) || key.startsWith("os.");
+    }
+
+    private static void putIfNotNull(Map<String, String> map, String key, String value) {
+        if (value != null) {
+            map.put(key, value);
+        }
+    }
+
+    private static void assertResolved(GroupArtifactVersion gav, Pom context) throws IOException {
+        if (gav.version() == null
+                || Objects.toString(gav.groupId(), "").contains("${")
+                || gav.artifactId().contains("${")
+                || gav.version().contains("${")) {
+            throw new IOException(
+                    String.format("Could not resolve the version of %s in %s", gav, context.gav()));
+        }
+    }
+
+    private static String artifactKey(GroupArtifactVersion gav) {
+        return String.format("%s:%s", gav.groupId(), gav.artifactId());
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            var counter = new AtomicInteger();
+            executor =
+                    Executors.newFixedThreadPool(
+                            concurrency,
+                            r -> {
+                                var t =
+                                        new Thread(
+                                                r,
+                                                String.format(
+                                                        "pom-fetch-%d", counter.incrementAndGet()));
+                                t.setDaemon(true);
+                                return t;
+                            });
+        }
+        return executor;
+    }
+
+    /**
+     * Where the parent of the POM is by relative path. Only paths relative to the POM's own
+     * location are followed, so a POM cannot name a file elsewhere on this machine or a URL on
+     * another host. Untrusted POMs which are not read from {@code file:} locations do not have
+     * their parents read by relative path at all.
+     */
+    private static URI relativeParent(Pom pom, URI location, ResolutionContext context) {
+        var relativePath = pom.parentRelativePath();
+        if (relativePath == null || relativePath.isBlank()) {
+            return null;
+        }
+        if (context.untrusted() && !"file".equalsIgnoreCase(location.getScheme())) {
+            return null;
+        }
+        if (!relativePath.endsWith(".xml")) {
+            relativePath = relativePath.endsWith("/") ? relativePath : relativePath + "/";
+            relativePath += "pom.xml";
+        }
+        try {
+            var relative = new URI(null, null, relativePath, null);
+            if (relative.isAbsolute()
+                    || relative.getRawAuthority() != null
+                    || relative.getPath().startsWith("/")) {
+                return null;
+            }
+            var resolved = location.resolve(relative);
+            if (!Objects.equals(resolved.getScheme(), location.getScheme())
+                    || !Objects.equals(resolved.getRawAuthority(), location.getRawAuthority())) {
+                return null;
+            }
+            return resolved;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** Read the parent from its relative path, if that is where the expected parent is. */
+    private Relative readRelative(
+            GroupArtifactVersion expected, URI location, ResolutionContext context)
+            throws InterruptedException {
+        var read = context.relatives.get(location);
+        if (read == null) {
+            read = readRelative(location, context.insecure());
+            context.relatives.putIfAbsent(location, read);
+        }
+        if (read.isEmpty()) {
+            Log.tracev("No parent {0} at {1}", expected, location);
+            return null;
+        }
+        var candidate = read.get();
+        if (expected.equals(candidate.pom().gav())) {
+            Log.tracev("Using parent {0} from {1}", expected, location);
+            return candidate;
+        }
+        Log.tracev("{0} is {1}, not parent {2}", location, candidate.pom().gav(), expected);
+        return null;
+    }
+
+    private Optional<Relative> readRelative(URI location, boolean insecure)
+            throws InterruptedException {
+        try (var stream = transport.open(location.toString(), insecure)) {
+            var content = stream.readAllBytes();
+            return Optional.of(new Relative(Pom.parse(new ByteArrayInputStream(content)), content));
+        } catch (IOException e) {
+            Log.tracev("Could not read {0}: {1}", location, e);
+            return Optional.empty();
+        }
+    }
+
+    private Pom fetch(GroupArtifactVersion gav, ResolutionContext context)
+            throws IOException, InterruptedException {
+        var path =
+                String.format(
+                        "%s/%s/%s/%s-%s.pom",
+                        gav.groupId().replace('.', '/'),
+                        gav.artifactId(),
+                        gav.version(),
+                        gav.artifactId(),
+                        gav.version());
+        if (localRepository.isPresent()) {
+            var local = Path.of(localRepository.get(), path);
+            if (Files.isRegularFile(local)) {
+                Log.debugv("Reading {0}", local);
+                try (var stream = Files.newInputStream(local)) {
+                    return Pom.parse(stream);
+                }
+            }
+        }
+        var candidates = new LinkedHashSet<String>();
+        context.repositories().forEach(r -> candidates.add(r.replaceAll("/+$", "")));
+        remoteRepositories.forEach(r -> candidates.add(r.replaceAll("/+$", "")));
+        // any repository may be down or refuse access, so each failure only moves on to the next
+        var failures = new ArrayList<String>();
+        var missing = true;
+        for (var repository : candidates) {
+            var url = String.format("%s/%s", repository, path);
+            Log.debugv("Opening {0} ...", url);
+            try (var stream = transport.open(url, context.insecure())) {
+                return Pom.parse(new ByteArrayInputStream(stream.readAllBytes()));
+            } catch (FileNotFoundException e) {
+                Log.tracev("{0} not found", url);
+            } catch (IOException e) {
+                Log.debugv("Could not read {0}: {1}", url, e);
+                failures.add(String.format("%s: %s", repository, e.getMessage()));
+                missing = false;
+            }
+        }
+        if (missing) {
+            throw new FileNotFoundException(String.format("POM for %s not found", gav));
+        }
+        throw new IOException(
+                String.format(
+                        "POM for %s could not be read: %s", gav, String.join("; ", failures)));
+    }
+
+    private static ResolutionContext emptyContext() {
+        return new ResolutionContext(List.of(), Map.of(), Log::warn);
+    }
+
+    /** A map which drops its least recently used entry beyond the given size. */
+    private static <K, V> Map<K, V> lru(int maxSize) {
+        return Collections.synchronizedMap(
+                new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                        return size() > maxSize;
+                    }
+                });
+    }
+
+    /** A parent POM read by relative path, with its content. */
+    static record Relative(Pom pom, byte[] content) {}
+
+    /**
+     * A POM kept for the repositories it was searched for in, and whether they were trusted without
+     * TLS validation.
+     */
+    private static record Key(
+            List<String> repositories, boolean insecure, GroupArtifactVersion gav) {}
+
+    /** A dependency reached by the transitive walk, with the exclusions along its path. */
+    private static record Node(GroupArtifactVersion gav, String scope, List<String> exclusions) {
+        boolean excludes(PomDependency dependency) {
+            for (var exclusion : exclusions) {
+                var parts = exclusion.split(":", 2);
+                if (matches(parts[0], dependency.groupId())
+                        && (parts.length < 2 || matches(parts[1], dependency.artifactId()))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static boolean matches(String pattern, String value) {
+            return "*".equals(pattern) || pattern.equals(value);
+        }
+    }
+}
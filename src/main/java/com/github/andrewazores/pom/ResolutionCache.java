@@ -0,0 +1,126 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Persistent on-disk cache of resolved dependency lists, keyed by the content of the POM, its
+ * parents found by relative path, and the settings and repositories it was resolved with. An
+ * unchanged POM therefore only needs resolving again once its entry expires, however it was
+ * obtained. Results involving SNAPSHOTs are not cached by callers, since those may change.
+ */
+@ApplicationScoped
+public class ResolutionCache {
+
+    private static final String FORMAT = "2";
+
+    @ConfigProperty(name = "maven-gav-checker.cache.enabled")
+    boolean enabled;
+
+    @ConfigProperty(name = "maven-gav-checker.cache.directory")
+    String directory;
+
+    @ConfigProperty(name = "maven-gav-checker.cache.resolution-ttl")
+    Duration ttl;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The cache key of content, such as a POM and its parents, resolved with the given settings.
+     */
+    public static String key(byte[] pom, String... settings) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(FORMAT.getBytes(StandardCharsets.UTF_8));
+            for (var setting : settings) {
+                digest.update((byte) 0);
+                digest.update(String.valueOf(setting).getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0);
+            digest.update(pom);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Optional<List<GroupArtifactVersion>> get(String key) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        try {
+            if (Files.getLastModifiedTime(entry(key))
+                    .toInstant()
+                    .plus(ttl)
+                    .isBefore(Instant.now())) {
+                Log.debugv("Resolution cache entry {0} has expired", key);
+                return Optional.empty();
+            }
+            var result = new ArrayList<GroupArtifactVersion>();
+            for (var line : Files.readAllLines(entry(key), StandardCharsets.UTF_8)) {
+                var parts = line.split(":");
+                if (parts.length != 3) {
+                    throw new IOException(String.format("Corrupt cache entry %s", entry(key)));
+                }
+                result.add(new GroupArtifactVersion(parts[0], parts[1], parts[2]));
+            }
+            return Optional.of(result);
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            Log.debugv(e, "Ignoring unreadable resolution cache entry {0}", key);
+            return Optional.empty();
+        }
+    }
+
+    public void put(String key, Collection<GroupArtifactVersion> dependencies) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        var dest = entry(key);
+        Files.createDirectories(dest.getParent());
+        var lines = dependencies.stream().map(GroupArtifactVersion::toString).toList();
+        var tmp = Files.createTempFile(dest.getParent(), dest.getFileName().toString(), ".tmp");
+        Files.write(tmp, lines, StandardCharsets.UTF_8);
+        Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path entry(String key) {
+        return Path.of(directory, "resolved", key);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+
+/**
+ * The state of one resolution by {@link PomResolver}: the repositories being checked, the workspace
+ * POMs, and where warnings are reported. SNAPSHOT POMs are only kept for the lifetime of the
+ * context, since they may change between resolutions.
+ */
+public final class ResolutionContext {
+
+    private final List<String> repositories;
+    private final Map<GroupArtifactVersion, Pom> workspace;
+    private final Consumer<String> warnings;
+    private final boolean untrusted;
+    private final boolean insecure;
+    final Map<GroupArtifactVersion, CompletableFuture<Pom>> snapshots;
+    final Map<URI, Optional<PomResolver.Relative>> relatives = new ConcurrentHashMap<>();
+    private volatile boolean usedSnapshots;
+
+    /**
+     * @param repositories the repositories being checked, which are searched for POMs before the
+     *     configured remote repositories
+     * @param workspace POMs, such as the modules of a reactor, which are read before anywhere else
+     * @param warnings where to report problems that do not fail the resolution
+     */
+    public ResolutionContext(
+            List<String> repositories,
+            Map<GroupArtifactVersion, Pom> workspace,
+            Consumer<String> warnings) {
+        this(repositories, workspace, warnings, false, false);
+    }
+
+    /**
+     * @param untrusted whether the POMs were given by a client that may not read this machine's
+     *     files or reach its network, so only {@code file:} POMs have parents read by relative path
+     * @param insecure whether TLS validation is skipped when downloading POMs
+     * @see #ResolutionContext(List, Map, Consumer)
+     */
+    public ResolutionContext(
+            List<String> repositories,
+            Map<GroupArtifactVersion, Pom> workspace,
+            Consumer<String> warnings,
+            boolean untrusted,
+            boolean insecure) {
+        this(repositories, workspace, warnings, untrusted, insecure, new ConcurrentHashMap<>());
+    }
+
+    private ResolutionContext(
+            List<String> repositories,
+            Map<GroupArtifactVersion, Pom> workspace,
+            Consumer<String> warnings,
+            boolean untrusted,
+            boolean insecure,
+            Map<GroupArtifactVersion, CompletableFuture<Pom>> snapshots) {
+        this.repositories = List.copyOf(repositories);
+        this.workspace = Map.copyOf(workspace);
+        this.warnings = warnings;
+        this.untrusted = untrusted;
+        this.insecure = insecure;
+        this.snapshots = snapshots;
+    }
+
+    public List<String> repositories() {
+        return repositories;
+    }
+
+    public Map<GroupArtifactVersion, Pom> workspace() {
+        return workspace;
+    }
+
+    public boolean untrusted() {
+        return untrusted;
+    }
+
+    public boolean insecure() {
+        return insecure;
+    }
+
+    public void warn(String message) {
+        warnings.accept(message);
+    }
+
+    /** Whether any SNAPSHOT POM was read from a repository, so the result may change. */
+    public boolean usedSnapshots() {
+        return usedSnapshots;
+    }
+
+    void markSnapshot() {
+        usedSnapshots = true;
+    }
+
+    /**
+     * A context with the same repositories and SNAPSHOTs, but no workspace, which tracks its own
+     * use of SNAPSHOTs.
+     */
+    ResolutionContext isolated() {
+        return new ResolutionContext(
+                repositories, Map.of(), warnings, untrusted, insecure, snapshots);
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import com.github.andrewazores.model.MavenVersioning;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Persistent on-disk cache of maven-metadata.xml documents. Each entry keeps the HTTP validators
+ * (ETag/Last-Modified) needed for conditional revalidation, and a compact line-oriented copy of the
+ * parsed versioning so that cache hits never re-parse XML. The documents themselves are not kept.
+ */
+@ApplicationScoped
+public class MetadataCache {
+
+    private static final String INFO_SUFFIX = ".properties";
+    private static final String VERSIONING_SUFFIX = ".versions";
+
+    private static final String ETAG = "etag";
+    private static final String LAST_MODIFIED = "last-modified";
+    private static final String VALIDATED = "validated";
+
+    @ConfigProperty(name = "maven-gav-checker.cache.enabled")
+    boolean enabled;
+
+    @ConfigProperty(name = "maven-gav-checker.cache.directory")
+    String directory;
+
+    @ConfigProperty(name = "maven-gav-checker.cache.ttl")
+    Duration ttl;
+
+    public boolean isCacheable(String url) {
+        return enabled && (url.startsWith("http://") || url.startsWith("https://"));
+    }
+
+    public Optional<Entry> get(String url) {
+        var base = entryBase(url);
+        var info = base.resolveSibling(base.getFileName() + INFO_SUFFIX);
+        var versioning = base.resolveSibling(base.getFileName() + VERSIONING_SUFFIX);
+        if (!Files.isRegularFile(info) || !Files.isRegularFile(versioning)) {
+            return Optional.empty();
+        }
+        var props = new Properties();
+        try (InputStream in = Files.newInputStream(info)) {
+            props.load(in);
+            return Optional.of(
+                    new Entry(
+                            Optional.ofNullable(props.getProperty(ETAG)),
+                            Optional.ofNullable(props.getProperty(LAST_MODIFIED)),
+                            Instant.ofEpochMilli(Long.parseLong(props.getProperty(VALIDATED))),
+                            versioning));
+        } catch (IOException | RuntimeException e) {
+            Log.debugv(e, "Ignoring unreadable cache entry for {0}", url);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the entry may be used without revalidating it. With the default TTL of zero entries
+     * are never fresh, so that a version published since the last check is always seen.
+     */
+    public boolean isFresh(Entry entry) {
+        return entry.validated().plus(ttl).isAfter(Instant.now());
+    }
+
+    public void put(
+            String url,
+            Optional<String> etag,
+            Optional<String> lastModified,
+            MavenVersioning versioning)
+            throws IOException {
+        var base = entryBase(url);
+        Files.createDirectories(base.getParent());
+        var lines = new ArrayList<String>(versioning.versions().size() + 2);
+        lines.add(versioning.latest());
+        lines.add(versioning.release());
+        lines.addAll(versioning.versions());
+        write(
+                base.resolveSibling(base.getFileName() + VERSIONING_SUFFIX),
+                (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        writeInfo(base, etag, lastModified);
+    }
+
+    public void touch(String url, Entry entry) throws IOException {
+        writeInfo(entryBase(url), entry.etag(), entry.lastModified());
+    }
+
+    private void writeInfo(Path base, Optional<String> etag, Optional<String> lastModified)
+            throws IOException {
+        var props = new Properties();
+        etag.ifPresent(v -> props.setProperty(ETAG, v));
+        lastModified.ifPresent(v -> props.setProperty(LAST_MODIFIED, v));
+        props.setProperty(VALIDATED, Long.toString(Instant.now().toEpochMilli()));
+        var tmp = Files.createTempFile(base.getParent(), base.getFileName().toString(), ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            props.store(out, null);
+        }
+        Files.move(
+                tmp,
+                base.resolveSibling(base.getFileName() + INFO_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void write(Path dest, byte[] content) throws IOException {
+        var tmp = Files.createTempFile(dest.getParent(), dest.getFileName().toString(), ".tmp");
+        Files.write(tmp, content);
+        Files.move(tmp, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path entryBase(String url) {
+        return Path.of(directory, "metadata", sha256(url));
+    }
+
+    static String sha256(String s) {
+        try {
+            return HexFormat.of()
+                    .formatHex(
+                            MessageDigest.getInstance("SHA-256")
+                                    .digest(s.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static record Entry(
+            Optional<String> etag,
+            Optional<String> lastModified,
+            Instant validated,
+            Path versioningFile) {
+        /**
+         * Read the cached versioning. Versions are stored newest-first, so a positive {@code limit}
+         * only needs to read that many lines.
+         */
+        public MavenVersioning versioning(int limit) throws IOException {
+            try (var reader = Files.newBufferedReader(versioningFile, StandardCharsets.UTF_8)) {
+                var latest = reader.readLine();
+                var release = reader.readLine();
+                if (latest == null || release == null) {
+                    throw new IOException(String.format("Corrupt cache entry %s", versioningFile));
+                }
+                List<String> versions = new ArrayList<>();
+                String line;
+                while ((limit <= 0 || versions.size() < limit)
+                        && (line = reader.readLine()) != null) {
+                    versions.add(line);
+                }
+                return new MavenVersioning(latest, release, versions);
+            }
+        }
+    }
+}
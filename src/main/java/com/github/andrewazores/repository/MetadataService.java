@@ -0,0 +1,161 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import com.github.andrewazores.model.MavenVersioning;
+import com.github.andrewazores.util.Futures;
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+/**
+ * Loads maven-metadata.xml documents. Concurrent requests for the same metadata URL share a single
+ * in-flight download and parse rather than each hitting the repository.
+ */
+@ApplicationScoped
+public class MetadataService {
+
+    private static final int HTTP_NOT_MODIFIED = 304;
+
+    @Inject MetadataCache cache;
+    @Inject RepositoryTransport transport;
+
+    private final Map<String, CompletableFuture<MavenVersioning>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public static String metadataUrl(String repoRoot, String groupId, String artifactId) {
+        return String.format(
+                "%s/%s/%s/maven-metadata.xml", repoRoot, groupId.replace('.', '/'), artifactId);
+    }
+
+    /**
+     * Load the metadata at the given URL, retaining only the newest {@code limit} versions. A
+     * non-positive limit retains all versions.
+     */
+    public MavenVersioning load(String url, int limit) throws IOException, InterruptedException {
+        return load(url, limit, false, Log::warn);
+    }
+
+    /**
+     * Load the metadata at the given URL, reporting problems that do not fail the load, such as
+     * failures to update the cache, as warnings. Loads which skip TLS validation are never shared
+     * with those which do not.
+     *
+     * @see #load(String, int)
+     */
+    public MavenVersioning load(String url, int limit, boolean insecure, Consumer<String> warnings)
+            throws IOException, InterruptedException {
+        var key = String.format("%s#%d%s", url, Math.max(limit, 0), insecure ? "#insecure" : "");
+        var created = new CompletableFuture<MavenVersioning>();
+        CompletableFuture<MavenVersioning> existing;
+        while ((existing = inFlight.putIfAbsent(key, created)) != null) {
+            Log.tracev("Joining in-flight request for {0}", url);
+            try {
+                return Futures.await(existing);
+            } catch (InterruptedException e) {
+                // an interrupted download, such as a hedged lookup that another repository
+                // answered first, is retried by whoever joined it, unless they were interrupted too
+                if (!existing.isCompletedExceptionally()) {
+                    throw e;
+                }
+            }
+        }
+        MavenVersioning versioning = null;
+        Exception failure = null;
+        try {
+            versioning = fetch(url, limit, insecure, warnings);
+        } catch (Exception e) {
+            failure = e;
+        }
+        // unmapped before anyone waiting is released, so that a retry starts a new download
+        // rather than joining this one again
+        inFlight.remove(key, created);
+        if (failure == null) {
+            created.complete(versioning);
+        } else {
+            created.completeExceptionally(failure);
+        }
+        return Futures.await(created);
+    }
+
+    private MavenVersioning fetch(
+            String url, int limit, boolean insecure, Consumer<String> warnings)
+            throws IOException, InterruptedException {
+        if (!cache.isCacheable(url)) {
+            Log.debugv("Opening {0} ...", url);
+            try (var stream = transport.open(url, insecure)) {
+                if (Log.isDebugEnabled()) {
+                    var raw = stream.readAllBytes();
+                    Log.debug(new String(raw, StandardCharsets.UTF_8));
+                    return MavenVersioning.parse(new ByteArrayInputStream(raw), limit);
+                }
+                return MavenVersioning.parse(stream, limit);
+            }
+        }
+        var cached = cache.get(url);
+        if (cached.isPresent() && cache.isFresh(cached.get())) {
+            Log.debugv("Using cached metadata for {0}", url);
+            return cached.get().versioning(limit);
+        }
+
+        Log.debugv("Opening {0} ...", url);
+        var headers = new HashMap<String, String>();
+        cached.ifPresent(
+                entry -> {
+                    entry.etag().ifPresent(v -> headers.put("If-None-Match", v));
+                    entry.lastModified().ifPresent(v -> headers.put("If-Modified-Since", v));
+                });
+        try (var response = transport.get(url, headers, insecure)) {
+            if (response.statusCode() == HTTP_NOT_MODIFIED && cached.isPresent()) {
+                Log.debugv("Cached metadata for {0} is still valid", url);
+                try {
+                    cache.touch(url, cached.get());
+                } catch (IOException e) {
+                    warnings.accept(cacheFailure(url, e));
+                }
+                return cached.get().versioning(limit);
+            }
+            response.assertOk();
+            var raw = response.body().readAllBytes();
+            if (Log.isDebugEnabled()) {
+                Log.debug(new String(raw, StandardCharsets.UTF_8));
+            }
+            // the full listing is parsed here so that the cached copy can serve any later limit
+            var versioning = MavenVersioning.parse(new ByteArrayInputStream(raw));
+            try {
+                cache.put(
+                        url, response.header("ETag"), response.header("Last-Modified"), versioning);
+            } catch (IOException e) {
+                warnings.accept(cacheFailure(url, e));
+            }
+            return versioning.limit(limit);
+        }
+    }
+
+    private static String cacheFailure(String url, IOException e) {
+        Log.debug(e);
+        return String.format("Failed to update metadata cache for %s: %s", url, e.getMessage());
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.repository;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+
+import io.quarkus.logging.Log;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+/**
+ * Shared HTTP transport for all repository access. An {@link HttpClient} is reused for the lifetime
+ * of the application so that connections (and HTTP/2 streams, where the server supports them) are
+ * pooled across requests. Requests which skip TLS validation, such as those of an invocation with
+ * {@code --insecure}, use a second client of their own, so that one invocation's choice never
+ * affects another's. Responses are requested with gzip encoding and decompressed while streaming.
+ * Non-HTTP URLs, such as {@code file:}, are opened directly.
+ */
+@ApplicationScoped
+public class RepositoryTransport {
+
+    @ConfigProperty(name = "maven-gav-checker.http.connect-timeout")
+    Duration connectTimeout;
+
+    @ConfigProperty(name = "maven-gav-checker.http.read-timeout")
+    Duration readTimeout;
+
+    @ConfigProperty(name = "maven-gav-checker.maven-repository.skip-tls-validation")
+    boolean configInsecure;
+
+    private HttpClient client;
+    private HttpClient insecureClient;
+
+    public static boolean isHttp(String url) {
+        return url.startsWith("http://") || url.startsWith("https://");
+    }
+
+    /**
+     * Open the given URL for reading. HTTP(S) error responses are raised as exceptions, with a
+     * {@link FileNotFoundException} for 404.
+     */
+    public InputStream open(String url) throws IOException, InterruptedException {
+        return open(url, false);
+    }
+
+    /**
+     * Open the given URL for reading, optionally without TLS certificate and hostname validation.
+     *
+     * @see #open(String)
+     */
+    public InputStream open(String url, boolean insecure) throws IOException, InterruptedException {
+        if (!isHttp(url)) {
+            return new BufferedInputStream(new URL(url).openStream());
+        }
+        var response = get(url, Map.of(), insecure);
+        try {
+            response.assertOk();
+        } catch (IOException e) {
+            response.close();
+            throw e;
+        }
+        return response.body();
+    }
+
+    /** Perform a GET request with the given additional request headers. */
+    public Response get(String url, Map<String, String> headers)
+            throws IOException, InterruptedException {
+        return get(url, headers, false);
+    }
+
+    /**
+     * Perform a GET request, optionally without TLS certificate and hostname validation.
+     *
+     * @see #get(String, Map)
+     */
+    public Response get(String url, Map<String, String> headers, boolean insecure)
+            throws IOException, InterruptedException {
+        var builder =
+                HttpRequest.newBuilder(URI.create(url))
+                        .GET()
+                        .timeout(readTimeout)
+                        .header("Accept-Encoding", "gzip");
+        headers.forEach(builder::header);
+        Log.tracev("GET {0}", url);
+        var response =
+                client(insecure || configInsecure)
+                        .send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        Log.tracev("{0} {1} {2}", response.version(), response.statusCode(), url);
+        InputStream body = response.body();
+        if (response.headers()
+                .firstValue("Content-Encoding")
+                .filter("gzip"::equalsIgnoreCase)
+                .isPresent()) {
+            body = new GZIPInputStream(body);
+        }
+        return new Response(url, response.statusCode(), response.headers(), body);
+    }
+
+    private synchronized HttpClient client(boolean insecure) throws IOException {
+        if (insecure) {
+            if (insecureClient == null) {
+                insecureClient = newClient().sslContext(insecureContext()).build();
+            }
+            return insecureClient;
+        }
+        if (client == null) {
+            client = newClient().build();
+        }
+        return client;
+    }
+
+    private HttpClient.Builder newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(connectTimeout);
+    }
+
+    private static SSLContext insecureContext() throws IOException {
+        // an X509ExtendedTrustManager is responsible for endpoint identification itself, so a
+        // no-op implementation disables hostname verification as well as certificate checks
+        TrustManager trm =
+                new X509ExtendedTrustManager() {
+                    public X509Certificate[] getAcceptedIssuers() {
+                        return new X509Certificate[0];
+                    }
+
+                    public void checkClientTrusted(X509Certificate[] certs, String authType) {}
+
+                    public void checkServerTrusted(X509Certificate[] certs, String authType) {}
+
+                    public void checkClientTrusted(
+                            X509Certificate[] certs, String authType, Socket socket) {}
+
+                    public void checkServerTrusted(
+                            X509Certificate[] certs, String authType, Socket socket) {}
+
+                    public void checkClientTrusted(
+                            X509Certificate[] certs, String authType, SSLEngine engine) {}
+
+                    public void checkServerTrusted(
+                            X509Certificate[] certs, String authType, SSLEngine engine) {}
+                };
+        try {
+            SSLContext sc = SSLContext.getInstance("TLS");
+            sc.init(null, new TrustManager[] {trm}, null);
+            return sc;
+        } catch (GeneralSecurityException e) {
+            throw new IOException(e);
+        }
+    }
+
+    public static record Response(String url, int statusCode, HttpHeaders headers, InputStream body)
+            implements Closeable {
+        public Optional<String> header(String name) {
+            return headers.firstValue(name);
+        }
+
+        public Response assertOk() throws IOException {
+            if (statusCode == 404) {
+                throw new FileNotFoundException(url);
+            }
+            if (statusCode < 200 || statusCode >= 300) {
+                throw new IOException(
+                        String.format(
+                                "Server returned HTTP response code: %d for URL: %s",
+                                statusCode, url));
+            }
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
@@ -15,34 +15,227 @@
  */
 package com.github.andrewazores.scripting;
 
+import java.io.BufferedReader;
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import com.github.andrewazores.util.Futures;
 import io.quarkus.logging.Log;
 import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 
+/**
+ * Runs external commands such as {@code gh} and {@code mvn}. Each command's stdout and stderr are
+ * drained concurrently, so a child cannot block on a full pipe, and a command that outlives its
+ * timeout is killed along with all of its descendants. At most {@code
+ * maven-gav-checker.cli.max-processes} commands run at once; the rest wait for a free slot.
+ */
 @ApplicationScoped
 public class CliSupport {
+
+    @ConfigProperty(name = "maven-gav-checker.cli.timeout")
+    Duration timeout;
+
+    @ConfigProperty(name = "maven-gav-checker.cli.max-processes")
+    int maxProcesses;
+
+    private final Map<String, Optional<Path>> executables = new ConcurrentHashMap<>();
+    private Semaphore permits;
+    private ExecutorService executor;
+    private ScheduledExecutorService watchdog;
+
+    /**
+     * Assert that the given command is available.
+     *
+     * @throws UnavailableCommandException if it is not found in {@code $PATH}
+     */
     public void testCommand(String command) {
+        if (which(command).isEmpty()) {
+            throw new UnavailableCommandException(command);
+        }
+    }
+
+    /**
+     * Find an executable in {@code $PATH}, or as given if it names a path. Lookups are cached for
+     * the lifetime of the application.
+     */
+    public Optional<Path> which(String command) {
+        return executables.computeIfAbsent(command, CliSupport::find);
+    }
+
+    /** Run a command to completion with the configured timeout. */
+    public ScriptResult script(String... command) throws IOException, InterruptedException {
+        var result = scriptAsync(timeout, command);
+        try {
+            return Futures.await(result);
+        } catch (InterruptedException e) {
+            // kills the command if it has already started
+            result.cancel(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Run a command in the background. The command is killed, along with its descendants, if it
+     * does not complete within the timeout or if the returned future is cancelled.
+     */
+    public CompletableFuture<ScriptResult> scriptAsync(Duration timeout, String... command) {
+        var result = new CompletableFuture<ScriptResult>();
+        executor()
+                .execute(
+                        () -> {
+                            try {
+                                result.complete(run(result, timeout, command));
+                            } catch (Throwable t) {
+                                result.completeExceptionally(t);
+                            }
+                        });
+        return result;
+    }
+
+    private ScriptResult run(
+            CompletableFuture<ScriptResult> result, Duration timeout, String... command)
+            throws IOException, InterruptedException {
+        var permits = permits();
+        permits.acquire();
         try {
-            if (!script("command", "-v", command).ok()) {
-                throw new UnavailableCommandException(command);
+            if (result.isDone()) {
+                // cancelled while waiting for a slot
+                return null;
+            }
+            var resolved = command.clone();
+            which(command[0]).ifPresent(p -> resolved[0] = p.toString());
+            Log.trace(String.join(" ", Arrays.asList(command)));
+            var proc = new ProcessBuilder().command(resolved).start();
+            var timedOut = new AtomicBoolean();
+            var deadline =
+                    watchdog()
+                            .schedule(
+                                    () -> {
+                                        timedOut.set(true);
+                                        kill(proc);
+                                    },
+                                    timeout.toMillis(),
+                                    TimeUnit.MILLISECONDS);
+            result.whenComplete(
+                    (r, t) -> {
+                        if (result.isCancelled()) {
+                            kill(proc);
+                        }
+                    });
+            try {
+                var out = drain(proc.inputReader());
+                var err = drain(proc.errorReader());
+                int sc = proc.waitFor();
+                if (timedOut.get()) {
+                    throw new IOException(
+                            String.format("%s timed out after %s", command[0], timeout));
+                }
+                return new ScriptResult(sc, Futures.await(out), Futures.await(err));
+            } finally {
+                deadline.cancel(false);
             }
-        } catch (IOException | InterruptedException e) {
-            throw new UnavailableCommandException(command, e);
+        } finally {
+            permits.release();
         }
     }
 
-    public ScriptResult script(String... command) throws IOException, InterruptedException {
-        Log.trace(String.join(" ", Arrays.asList(command)));
-        var proc = new ProcessBuilder().command(command).start();
-        var out = proc.inputReader().lines().toList();
-        var err = proc.errorReader().lines().toList();
-        int sc = proc.waitFor();
-        return new ScriptResult(sc, out, err);
+    private CompletableFuture<List<String>> drain(BufferedReader reader) {
+        var lines = new CompletableFuture<List<String>>();
+        executor()
+                .execute(
+                        () -> {
+                            try (reader) {
+                                lines.complete(reader.lines().toList());
+                            } catch (UncheckedIOException e) {
+                                lines.completeExceptionally(e.getCause());
+                            } catch (Throwable t) {
+                                lines.completeExceptionally(t);
+                            }
+                        });
+        return lines;
+    }
+
+    private static void kill(Process proc) {
+        proc.descendants().forEach(ProcessHandle::destroyForcibly);
+        proc.destroyForcibly();
+    }
+
+    private static Optional<Path> find(String command) {
+        try {
+            if (command.contains(File.separator)) {
+                var path = Path.of(command);
+                return isExecutable(path) ? Optional.of(path) : Optional.empty();
+            }
+            var dirs = Optional.ofNullable(System.getenv("PATH")).orElse("");
+            for (var dir : dirs.split(File.pathSeparator)) {
+                if (dir.isEmpty()) {
+                    continue;
+                }
+                var path = Path.of(dir, command);
+                if (isExecutable(path)) {
+                    return Optional.of(path.toAbsolutePath());
+                }
+            }
+        } catch (InvalidPathException e) {
+            Log.trace(e);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isExecutable(Path path) {
+        return Files.isRegularFile(path) && Files.isExecutable(path);
+    }
+
+    private synchronized Semaphore permits() {
+        if (permits == null) {
+            permits = new Semaphore(maxProcesses);
+        }
+        return permits;
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            var counter = new AtomicInteger();
+            executor =
+                    Executors.newCachedThreadPool(
+                            r -> newThread(r, String.format("cli-%d", counter.incrementAndGet())));
+        }
+        return executor;
+    }
+
+    private synchronized ScheduledExecutorService watchdog() {
+        if (watchdog == null) {
+            watchdog =
+                    Executors.newSingleThreadScheduledExecutor(r -> newThread(r, "cli-watchdog"));
+        }
+        return watchdog;
+    }
+
+    private static Thread newThread(Runnable r, String name) {
+        var t = new Thread(r, name);
+        t.setDaemon(true);
+        return t;
     }
 
     public static record ScriptResult(int statusCode, List<String> out, List<String> err) {
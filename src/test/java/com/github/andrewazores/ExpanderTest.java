@@ -0,0 +1,147 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ExpanderTest {
+
+    @Test
+    void testOrderedKeepsInputOrder() throws Exception {
+        var result = Collections.synchronizedList(new ArrayList<GroupArtifactVersion>());
+        // the first input only finishes once the last one has started, so every later input
+        // is expanded while it is still running
+        var last = new CountDownLatch(1);
+        try (var expander = new Expander(4, true, result::add)) {
+            expander.submit(
+                    sink -> {
+                        sink.accept(gav("a", "1"));
+                        last.await(5, TimeUnit.SECONDS);
+                        sink.accept(gav("a", "2"));
+                    });
+            expander.emit(gav("b", "1"));
+            expander.submit(sink -> sink.accept(gav("c", "1")));
+            expander.submit(
+                    sink -> {
+                        last.countDown();
+                        sink.accept(gav("d", "1"));
+                    });
+            expander.await();
+        }
+        MatcherAssert.assertThat(
+                result,
+                Matchers.equalTo(
+                        List.of(
+                                gav("a", "1"),
+                                gav("a", "2"),
+                                gav("b", "1"),
+                                gav("c", "1"),
+                                gav("d", "1"))));
+    }
+
+    @Test
+    void testBlockedSinkDoesNotBlockExpansions() throws Exception {
+        var result = Collections.synchronizedList(new ArrayList<GroupArtifactVersion>());
+        var held = new CountDownLatch(1);
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        Consumer<GroupArtifactVersion> sink =
+                gav -> {
+                    result.add(gav);
+                    if (gav.equals(gav("b", "1"))) {
+                        entered.countDown();
+                        try {
+                            release.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                };
+        try (var expander = new Expander(4, true, sink)) {
+            expander.submit(
+                    s -> {
+                        s.accept(gav("a", "1"));
+                        // only finish once the second input's GAV is held behind this one
+                        held.await(5, TimeUnit.SECONDS);
+                    });
+            expander.submit(
+                    s -> {
+                        s.accept(gav("b", "1"));
+                        held.countDown();
+                    });
+            Assertions.assertTrue(entered.await(5, TimeUnit.SECONDS));
+            // the held GAV of the second input is still being passed to the sink
+            Assertions.assertTimeoutPreemptively(
+                    Duration.ofSeconds(2), () -> expander.submit(s -> s.accept(gav("c", "1"))));
+            release.countDown();
+            expander.await();
+        }
+        MatcherAssert.assertThat(
+                result, Matchers.equalTo(List.of(gav("a", "1"), gav("b", "1"), gav("c", "1"))));
+    }
+
+    @Test
+    void testUnorderedOverlapsExpansions() throws Exception {
+        var result = Collections.synchronizedList(new ArrayList<GroupArtifactVersion>());
+        int inputs = 8;
+        var started = new CountDownLatch(inputs);
+        try (var expander = new Expander(inputs, false, result::add)) {
+            for (int i = 0; i < inputs; i++) {
+                var gav = gav("a", Integer.toString(i));
+                expander.submit(
+                        sink -> {
+                            started.countDown();
+                            // only completes if every expansion is running at once
+                            if (!started.await(5, TimeUnit.SECONDS)) {
+                                throw new IOException("expansions did not overlap");
+                            }
+                            sink.accept(gav);
+                        });
+            }
+            expander.await();
+        }
+        MatcherAssert.assertThat(result, Matchers.hasSize(inputs));
+    }
+
+    @Test
+    void testFailureIsRethrown() throws Exception {
+        try (var expander = new Expander(2, true, gav -> {})) {
+            expander.submit(
+                    sink -> {
+                        throw new IOException("expected");
+                    });
+            var e = Assertions.assertThrows(IOException.class, expander::await);
+            MatcherAssert.assertThat(e.getMessage(), Matchers.equalTo("expected"));
+        }
+    }
+
+    private static GroupArtifactVersion gav(String artifact, String version) {
+        return new GroupArtifactVersion("g", artifact, version);
+    }
+}
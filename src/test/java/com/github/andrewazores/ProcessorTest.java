@@ -0,0 +1,205 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.model.MavenVersioning;
+import com.github.andrewazores.output.OutputReporter;
+import com.github.andrewazores.repository.MetadataService;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+
+class ProcessorTest {
+
+    private static final MavenVersioning VERSIONS =
+            new MavenVersioning("2", "2", List.of("2", "1"));
+
+    Processor processor;
+    // the GAVs reported, in order
+    List<GroupArtifactVersion> reported = Collections.synchronizedList(new ArrayList<>());
+    // the repository each GAV was reported from, in order
+    List<String> repositories = Collections.synchronizedList(new ArrayList<>());
+    OutputReporter reporter;
+
+    @BeforeEach
+    void setup() {
+        processor = new Processor();
+        processor.metadataService = Mockito.mock(MetadataService.class);
+        reporter = Mockito.mock(OutputReporter.class);
+        Mockito.when(reporter.start(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(
+                        new OutputReporter.Report() {
+                            @Override
+                            public void accept(GroupArtifactVersion gav, ProcessResult result) {
+                                reported.add(gav);
+                                repositories.add(result.repository());
+                            }
+
+                            @Override
+                            public void finish() {}
+                        });
+    }
+
+    @Test
+    void testHedgesSlowRepository() throws Exception {
+        var interrupted = new CountDownLatch(1);
+        metadata(
+                url -> {
+                    if (url.startsWith("https://slow/")) {
+                        try {
+                            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                            throw e;
+                        }
+                    }
+                    return VERSIONS;
+                });
+
+        var failures =
+                processor.execute(
+                        reporter,
+                        List.of(gav("a", "1")),
+                        // the hedged request needs a permit of its own
+                        options(List.of("https://slow", "https://fast"), 2, false, 50));
+
+        MatcherAssert.assertThat(failures, Matchers.equalTo(0));
+        MatcherAssert.assertThat(repositories, Matchers.contains("https://fast"));
+        // the outstanding request to the slower repository is cancelled
+        MatcherAssert.assertThat(interrupted.await(5, TimeUnit.SECONDS), Matchers.is(true));
+    }
+
+    @Test
+    void testMissDoesNotWaitForHedgeDelay() throws Exception {
+        metadata(
+                url ->
+                        url.startsWith("https://first/")
+                                ? new MavenVersioning("1", "1", List.of("1"))
+                                : VERSIONS);
+
+        var start = System.nanoTime();
+        processor.execute(
+                reporter,
+                List.of(gav("a", "2")),
+                options(
+                        List.of("https://first", "https://second"),
+                        1,
+                        false,
+                        TimeUnit.MINUTES.toMillis(1)));
+
+        MatcherAssert.assertThat(repositories, Matchers.contains("https://second"));
+        MatcherAssert.assertThat(
+                Duration.ofNanos(System.nanoTime() - start),
+                Matchers.lessThan(Duration.ofSeconds(30)));
+    }
+
+    @Test
+    void testOrderedReportsInInputOrder() throws Exception {
+        // later inputs complete first
+        var gavs = IntStream.range(0, 8).mapToObj(i -> gav("a" + i, null)).toList();
+        metadata(
+                url -> {
+                    var index = Integer.parseInt(url.replaceAll(".*/a(\\d+)/.*", "$1"));
+                    Thread.sleep((gavs.size() - index) * 20L);
+                    return VERSIONS;
+                });
+
+        processor.execute(reporter, gavs, options(List.of("https://repo"), 8, true, 0));
+
+        MatcherAssert.assertThat(reported, Matchers.equalTo(gavs));
+    }
+
+    @Test
+    void testSourceIsBackpressured() throws Exception {
+        var blocked = new CountDownLatch(1);
+        metadata(
+                url -> {
+                    blocked.await();
+                    return VERSIONS;
+                });
+        var emitted = new AtomicInteger();
+        var gavs = IntStream.range(0, 100).mapToObj(i -> gav("a" + i, null)).toList();
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var run =
+                    executor.submit(
+                            () ->
+                                    processor.execute(
+                                            reporter,
+                                            OutputReporter.Output.LOG,
+                                            sink -> {
+                                                for (var gav : gavs) {
+                                                    sink.accept(gav);
+                                                    emitted.incrementAndGet();
+                                                }
+                                            },
+                                            options(List.of("https://repo"), 1, false, 0)));
+            Thread.sleep(200);
+            // with one check at a time, the source may only run a bounded distance ahead of it
+            MatcherAssert.assertThat(emitted.get(), Matchers.lessThan(gavs.size()));
+            MatcherAssert.assertThat(reported, Matchers.empty());
+
+            blocked.countDown();
+            run.get(30, TimeUnit.SECONDS);
+            MatcherAssert.assertThat(emitted.get(), Matchers.equalTo(gavs.size()));
+            MatcherAssert.assertThat(reported, Matchers.hasSize(gavs.size()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Metadata {
+        MavenVersioning load(String url) throws Exception;
+    }
+
+    private void metadata(Metadata metadata) throws Exception {
+        Answer<MavenVersioning> answer = invocation -> metadata.load(invocation.getArgument(0));
+        Mockito.when(
+                        processor.metadataService.load(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyInt(),
+                                ArgumentMatchers.anyBoolean(),
+                                ArgumentMatchers.any()))
+                .thenAnswer(answer);
+    }
+
+    private static CheckOptions options(
+            List<String> repositories, int concurrency, boolean ordered, long hedgeMillis) {
+        return new CheckOptions(
+                repositories, 0, concurrency, ordered, Duration.ofMillis(hedgeMillis), false);
+    }
+
+    private static GroupArtifactVersion gav(String artifactId, String version) {
+        return new GroupArtifactVersion("g", artifactId, version);
+    }
+}
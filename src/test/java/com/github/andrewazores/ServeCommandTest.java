@@ -0,0 +1,151 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.output.OutputReporter;
+import com.sun.net.httpserver.HttpServer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+class ServeCommandTest {
+
+    private static final String REMOTE_POM = "https://example.com/project/pom.xml";
+
+    ServeCommand command;
+    HttpServer server;
+
+    @BeforeEach
+    void setup() throws Exception {
+        command = new ServeCommand();
+        command.port = 0;
+        command.main = Mockito.mock(Main.class);
+        command.processor = Mockito.mock(Processor.class);
+        command.mapper = new ObjectMapper();
+        Mockito.when(command.main.reporter(ArgumentMatchers.anyString()))
+                .thenReturn(Mockito.mock(OutputReporter.class));
+        // run the expansion as the processor would, so that the test sees how it was expanded
+        Mockito.when(
+                        command.processor.execute(
+                                ArgumentMatchers.any(),
+                                ArgumentMatchers.any(),
+                                ArgumentMatchers.any(),
+                                ArgumentMatchers.any()))
+                .thenAnswer(
+                        invocation -> {
+                            invocation.<Processor.Source>getArgument(2).emit(gav -> {});
+                            return 0;
+                        });
+    }
+
+    @AfterEach
+    void teardown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testRemotePomsAreUntrustedBeyondLoopback() throws Exception {
+        command.bind = "0.0.0.0";
+        MatcherAssert.assertThat(post(REMOTE_POM), Matchers.equalTo(200));
+        Mockito.verify(command.main)
+                .expand(
+                        ArgumentMatchers.eq(List.of(REMOTE_POM)),
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.eq(true),
+                        ArgumentMatchers.any());
+    }
+
+    @Test
+    void testRemotePomsAreTrustedOnLoopback() throws Exception {
+        command.bind = "127.0.0.1";
+        MatcherAssert.assertThat(post(REMOTE_POM), Matchers.equalTo(200));
+        Mockito.verify(command.main)
+                .expand(
+                        ArgumentMatchers.eq(List.of(REMOTE_POM)),
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.eq(false),
+                        ArgumentMatchers.any());
+    }
+
+    @Test
+    void testLocalInputsAreRefusedBeyondLoopback() throws Exception {
+        command.bind = "0.0.0.0";
+        MatcherAssert.assertThat(post("file:///etc/pom.xml"), Matchers.equalTo(403));
+        Mockito.verify(command.main, Mockito.never())
+                .expand(
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.any(),
+                        ArgumentMatchers.anyBoolean(),
+                        ArgumentMatchers.any());
+    }
+
+    @Test
+    void testLocalInputs() {
+        MatcherAssert.assertThat(ServeCommand.isLocal("file:///etc/pom.xml"), Matchers.is(true));
+        MatcherAssert.assertThat(ServeCommand.isLocal("FILE:/etc/pom.xml"), Matchers.is(true));
+        MatcherAssert.assertThat(
+                ServeCommand.isLocal("jar:file:/tmp/a.jar!/pom.xml"), Matchers.is(true));
+        MatcherAssert.assertThat(ServeCommand.isLocal("/home/user/project"), Matchers.is(true));
+        MatcherAssert.assertThat(ServeCommand.isLocal("project"), Matchers.is(true));
+    }
+
+    @Test
+    void testRemoteInputs() {
+        MatcherAssert.assertThat(
+                ServeCommand.isLocal("org.slf4j:slf4j-api:2.0.12"), Matchers.is(false));
+        MatcherAssert.assertThat(ServeCommand.isLocal("info.picocli:picocli"), Matchers.is(false));
+        MatcherAssert.assertThat(
+                ServeCommand.isLocal("https://github.com/a/b/blob/main/pom.xml"),
+                Matchers.is(false));
+    }
+
+    private int post(String input) throws Exception {
+        server =
+                command.start(
+                        new CheckOptions(
+                                List.of("https://repo.example"),
+                                1,
+                                1,
+                                false,
+                                Duration.ZERO,
+                                false));
+        var request =
+                HttpRequest.newBuilder(
+                                URI.create(
+                                        String.format(
+                                                "http://127.0.0.1:%d/check",
+                                                server.getAddress().getPort())))
+                        .POST(HttpRequest.BodyPublishers.ofString(input))
+                        .build();
+        return HttpClient.newHttpClient()
+                .send(request, HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+    }
+}
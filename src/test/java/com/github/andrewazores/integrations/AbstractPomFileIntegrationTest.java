@@ -0,0 +1,167 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.pom.PomResolver;
+import com.github.andrewazores.pom.ResolutionCache;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class AbstractPomFileIntegrationTest {
+
+    PomUrlIntegration integration;
+
+    @BeforeEach
+    void setup() {
+        integration = new PomUrlIntegration();
+        integration.includeScope = "compile";
+        integration.resolverMode = "builtin";
+        integration.pomResolver = new PomResolver();
+        integration.resolutionCache = Mockito.mock(ResolutionCache.class);
+    }
+
+    @Test
+    void testReactorExcludesOwnArtifacts() throws Exception {
+        // the parent is not a module but is still read from the reactor's files, the BOM is a
+        // module imported by the others, and core is depended on by app. Nothing is available
+        // from repositories, as none are configured.
+        var files =
+                Map.of(
+                        "pom.xml",
+                        project(
+                                "<parent><groupId>g</groupId><artifactId>parent</artifactId>"
+                                        + "<version>1</version></parent>"
+                                        + "<artifactId>root</artifactId>"
+                                        + "<packaging>pom</packaging><modules><module>bom</module>"
+                                        + "<module>modules/core</module><module>modules/app"
+                                        + "</module></modules>"),
+                        "parent/pom.xml",
+                        project(
+                                "<groupId>g</groupId><artifactId>parent</artifactId>"
+                                        + "<version>1</version><properties><lib.version>2"
+                                        + "</lib.version></properties>"),
+                        "bom/pom.xml",
+                        project(
+                                child("bom")
+                                        + "<dependencyManagement><dependencies>"
+                                        + dependency("x", "lib", "${lib.version}")
+                                        + dependency("g", "core", "${project.version}")
+                                        + "</dependencies></dependencyManagement>"),
+                        "modules/core/pom.xml",
+                        project(child("core") + bom() + dependencies(dependency("x", "lib", null))),
+                        "modules/app/pom.xml",
+                        project(
+                                child("app")
+                                        + bom()
+                                        + dependencies(
+                                                dependency("g", "core", null)
+                                                        + dependency("x", "other", "3"))),
+                        "src/test/resources/pom.xml",
+                        "not a pom".getBytes(StandardCharsets.UTF_8));
+
+        var result = new ArrayList<GroupArtifactVersion>();
+        integration.processReactor(
+                files, URI.create("https://example.com"), ExpansionContext.DEFAULT, result::add);
+        MatcherAssert.assertThat(
+                result,
+                Matchers.contains(
+                        new GroupArtifactVersion("x", "lib", "2"),
+                        new GroupArtifactVersion("x", "other", "3")));
+    }
+
+    @Test
+    void testSnapshotsAreNotCached() throws Exception {
+        Mockito.when(integration.resolutionCache.isEnabled()).thenReturn(true);
+        Mockito.when(integration.resolutionCache.get(Mockito.anyString()))
+                .thenReturn(Optional.empty());
+        var files =
+                Map.of(
+                        "pom.xml",
+                        project(
+                                "<groupId>g</groupId><artifactId>root</artifactId>"
+                                        + "<version>1</version>"
+                                        + dependencies(dependency("x", "lib", "1-SNAPSHOT"))));
+        var result = new ArrayList<GroupArtifactVersion>();
+        integration.processReactor(
+                files, URI.create("https://example.com"), ExpansionContext.DEFAULT, result::add);
+        MatcherAssert.assertThat(
+                result, Matchers.contains(new GroupArtifactVersion("x", "lib", "1-SNAPSHOT")));
+        Mockito.verify(integration.resolutionCache, Mockito.never())
+                .put(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void testWarningsGoToTheContext() throws Exception {
+        var files =
+                Map.of(
+                        "pom.xml",
+                        project(
+                                "<groupId>g</groupId><artifactId>root</artifactId>"
+                                        + "<version>1</version><modules><module>missing</module>"
+                                        + "</modules>"));
+        var warnings = new ArrayList<String>();
+        integration.processReactor(
+                files,
+                URI.create("https://example.com"),
+                new ExpansionContext(List.of(), warnings::add),
+                gav -> {});
+        MatcherAssert.assertThat(
+                warnings, Matchers.contains(Matchers.containsString("missing/pom.xml")));
+    }
+
+    private static String child(String artifactId) {
+        return "<parent><groupId>g</groupId><artifactId>root</artifactId><version>1</version>"
+                + "</parent><artifactId>"
+                + artifactId
+                + "</artifactId>";
+    }
+
+    private static String bom() {
+        return "<dependencyManagement><dependencies><dependency><groupId>g</groupId>"
+                + "<artifactId>bom</artifactId><version>${project.version}</version>"
+                + "<type>pom</type><scope>import</scope></dependency></dependencies>"
+                + "</dependencyManagement>";
+    }
+
+    private static String dependencies(String dependencies) {
+        return "<dependencies>" + dependencies + "</dependencies>";
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return "<dependency><groupId>"
+                + groupId
+                + "</groupId><artifactId>"
+                + artifactId
+                + "</artifactId>"
+                + (version == null ? "" : "<version>" + version + "</version>")
+                + "</dependency>";
+    }
+
+    private static byte[] project(String content) {
+        return ("<project>" + content + "</project>").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.pom.PomResolver;
+import com.github.andrewazores.pom.ResolutionCache;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+class LocalProjectIntegrationTest {
+
+    @TempDir Path dir;
+    LocalProjectIntegration integration;
+
+    @BeforeEach
+    void setup() {
+        integration = new LocalProjectIntegration();
+        integration.concurrency = 2;
+        integration.includeScope = "compile";
+        integration.resolverMode = "builtin";
+        integration.pomResolver = new PomResolver();
+        integration.resolutionCache = Mockito.mock(ResolutionCache.class);
+    }
+
+    @Test
+    void testProjectDirectory() throws Exception {
+        // the parent is not a module, and no repositories are configured to find it in
+        write(
+                "project/build/parent/pom.xml",
+                "<groupId>g</groupId><artifactId>parent</artifactId><version>1</version>"
+                        + "<properties><lib.version>2</lib.version></properties>");
+        write(
+                "project/pom.xml",
+                "<parent><groupId>g</groupId><artifactId>parent</artifactId><version>1</version>"
+                        + "<relativePath>build/parent/pom.xml</relativePath></parent>"
+                        + "<artifactId>root</artifactId><packaging>pom</packaging>"
+                        + "<modules><module>a</module><module>b</module></modules>");
+        write("project/a/pom.xml", module("a", dependency("x", "lib", "${lib.version}")));
+        write(
+                "project/b/pom.xml",
+                module(
+                        "b",
+                        dependency("g", "a", "1")
+                                + dependency("x", "lib", "${lib.version}")
+                                + dependency("x", "other", "3")));
+        // none of these are modules or parents, so they are never read. The last would
+        // otherwise compete with the real parent.
+        write("project/b/target/classes/pom.xml", module("built", dependency("y", "y", "1")));
+        write("project/b/src/test/resources/pom.xml", module("fixture", dependency("y", "y", "1")));
+        write(
+                "project/node_modules/x/pom.xml",
+                "<groupId>g</groupId><artifactId>parent</artifactId><version>1</version>"
+                        + "<properties><lib.version>9</lib.version></properties>");
+
+        var url = dir.resolve("project").toUri().toURL();
+        MatcherAssert.assertThat(integration.test(url), Matchers.is(true));
+        var result = new ArrayList<GroupArtifactVersion>();
+        integration.expand(url, result::add);
+        MatcherAssert.assertThat(
+                result,
+                Matchers.contains(
+                        new GroupArtifactVersion("x", "lib", "2"),
+                        new GroupArtifactVersion("x", "other", "3")));
+    }
+
+    private static String module(String artifactId, String dependencies) {
+        return "<parent><groupId>g</groupId><artifactId>root</artifactId><version>1</version>"
+                + "</parent><artifactId>"
+                + artifactId
+                + "</artifactId><dependencies>"
+                + dependencies
+                + "</dependencies>";
+    }
+
+    private static String dependency(String groupId, String artifactId, String version) {
+        return String.format(
+                "<dependency><groupId>%s</groupId><artifactId>%s</artifactId>"
+                        + "<version>%s</version></dependency>",
+                groupId, artifactId, version);
+    }
+
+    private void write(String path, String content) throws IOException {
+        var file = dir.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "<project>" + content + "</project>", StandardCharsets.UTF_8);
+    }
+}
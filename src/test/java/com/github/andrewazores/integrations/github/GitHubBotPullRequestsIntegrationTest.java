@@ -0,0 +1,83 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.net.URI;
+import java.util.List;
+import java.util.function.Function;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class GitHubBotPullRequestsIntegrationTest {
+
+    @Mock PullRequestService pullRequests;
+    GitHubBotPullRequestsIntegration integration;
+
+    @BeforeEach
+    void setup() {
+        integration = new GitHubBotPullRequestsIntegration();
+        integration.pullRequests = pullRequests;
+        // stand-ins for two bots, which understand any title
+        integration.parsers =
+                List.of(
+                        parser("a", pr -> List.of(gav(pr.title()))),
+                        parser("b", pr -> List.of(gav(pr.title()), gav(pr.body()))));
+    }
+
+    @Test
+    void testCollectsDistinctGavs() throws Exception {
+        Mockito.when(pullRequests.listOpen("example", "repo"))
+                .thenReturn(
+                        List.of(
+                                new PullRequest("1", "x", "", "a[bot]"),
+                                new PullRequest("2", "z", "", "someone"),
+                                new PullRequest("3", "y", "x", "app/b"),
+                                new PullRequest("4", "z", "", "c[bot]")));
+        var url = URI.create("https://github.com/example/repo/pulls").toURL();
+
+        MatcherAssert.assertThat(integration.test(url), Matchers.is(true));
+        MatcherAssert.assertThat(
+                integration.apply(url), Matchers.equalTo(List.of(gav("x"), gav("y"))));
+    }
+
+    private static PullRequestParser parser(
+            String bot, Function<PullRequest, List<GroupArtifactVersion>> parse) {
+        return new PullRequestParser() {
+            @Override
+            public String bot() {
+                return bot;
+            }
+
+            @Override
+            public List<GroupArtifactVersion> parse(PullRequest pr) {
+                return parse.apply(pr);
+            }
+        };
+    }
+
+    private static GroupArtifactVersion gav(String artifact) {
+        return new GroupArtifactVersion("g", artifact, "1");
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class GitHubClientTest {
+
+    HttpServer server;
+    GitHubClient client;
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(
+                "/api/repos/example/repo",
+                exchange -> {
+                    if (!"Bearer secret"
+                            .equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+                        respond(exchange, 401, "{}");
+                    } else if (exchange.getRequestURI().getPath().endsWith("/repo")) {
+                        respond(exchange, 200, "{\"default_branch\":\"main\"}");
+                    } else {
+                        respond(exchange, 404, "{}");
+                    }
+                });
+        server.createContext(
+                "/api/graphql",
+                exchange -> {
+                    var request = new String(exchange.getRequestBody().readAllBytes());
+                    respond(
+                            exchange,
+                            200,
+                            request.contains("\"owner\":\"example\"")
+                                    ? "{\"data\":{\"viewer\":{\"login\":\"me\"}}}"
+                                    : "{\"errors\":[{\"message\":\"bad variables\"}]}");
+                });
+        server.start();
+
+        client = new GitHubClient();
+        client.mode = "api";
+        client.apiUrl = String.format("http://127.0.0.1:%d/api/", server.getAddress().getPort());
+        client.configToken = Optional.of("secret");
+        client.connectTimeout = Duration.ofSeconds(5);
+        client.readTimeout = Duration.ofSeconds(5);
+        client.mapper = new ObjectMapper();
+    }
+
+    @AfterEach
+    void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testGet() throws Exception {
+        MatcherAssert.assertThat(
+                client.get("/repos/example/repo").path("default_branch").asText(),
+                Matchers.equalTo("main"));
+        Assertions.assertThrows(
+                FileNotFoundException.class, () -> client.get("/repos/example/repo/pulls/1"));
+    }
+
+    @Test
+    void testGraphql() throws Exception {
+        MatcherAssert.assertThat(
+                client.graphql("query { viewer { login } }", Map.of("owner", "example"))
+                        .path("viewer")
+                        .path("login")
+                        .asText(),
+                Matchers.equalTo("me"));
+        var e =
+                Assertions.assertThrows(
+                        IOException.class,
+                        () -> client.graphql("query { viewer { login } }", Map.of()));
+        MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("bad variables"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (var out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github;
+
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.andrewazores.scripting.CliSupport;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class PullRequestServiceTest {
+
+    @Mock GitHubClient github;
+    @Mock CliSupport cli;
+    PullRequestService service;
+
+    @BeforeEach
+    void setup() {
+        service = new PullRequestService();
+        service.github = github;
+        service.cli = cli;
+        service.mapper = new ObjectMapper();
+        service.ttl = Duration.ofMinutes(10);
+    }
+
+    @Test
+    void testFetchesFromApi() throws Exception {
+        var url = URI.create("https://github.com/example/repo/pull/1").toURL();
+        var json =
+                "{\"user\":{\"login\":\"renovate[bot]\"},\"body\":null,"
+                        + "\"title\":\"chore(deps): update dependency g:a to v2\"}";
+        Mockito.when(github.isEnabled()).thenReturn(true);
+        Mockito.when(github.get("/repos/example/repo/pulls/1"))
+                .thenReturn(service.mapper.readTree(json));
+
+        MatcherAssert.assertThat(
+                service.get(url),
+                Matchers.equalTo(
+                        new PullRequest(
+                                url.toString(),
+                                "chore(deps): update dependency g:a to v2",
+                                "",
+                                "renovate[bot]")));
+        MatcherAssert.assertThat(service.get(url).title(), Matchers.startsWith("chore(deps)"));
+        Mockito.verify(github, Mockito.times(1)).get(Mockito.anyString());
+        Mockito.verifyNoInteractions(cli);
+    }
+
+    @Test
+    void testFetchesOnceWithGh() throws Exception {
+        var url = URI.create("https://github.com/example/repo/pull/1").toURL();
+        var json =
+                "{\"author\":{\"is_bot\":true,\"login\":\"app/dependabot\"},"
+                        + "\"body\":\"Bumps foo.\\n\",\"title\":\"build(deps): bump g:a from 1 to"
+                        + " 2\"}";
+        Mockito.when(cli.script(Mockito.any(String[].class)))
+                .thenReturn(new CliSupport.ScriptResult(0, List.of(json), List.of()));
+
+        var expected =
+                new PullRequest(
+                        url.toString(),
+                        "build(deps): bump g:a from 1 to 2",
+                        "Bumps foo.",
+                        "app/dependabot");
+        MatcherAssert.assertThat(service.get(url), Matchers.equalTo(expected));
+        MatcherAssert.assertThat(service.get(url), Matchers.equalTo(expected));
+        Mockito.verify(cli, Mockito.times(1))
+                .script("gh", "pr", "view", url.toString(), "--json", "title,body,author");
+    }
+
+    @Test
+    void testKeepsBoundedNumberOfPullRequests() throws Exception {
+        Mockito.when(github.isEnabled()).thenReturn(true);
+        Mockito.when(github.get(Mockito.anyString()))
+                .thenReturn(service.mapper.readTree("{\"title\":\"t\"}"));
+        var first = URI.create("https://github.com/example/repo/pull/0").toURL();
+        service.get(first);
+        for (int i = 1; i <= PullRequestService.MAX_KEPT_PULL_REQUESTS; i++) {
+            service.get(URI.create("https://github.com/example/repo/pull/" + i).toURL());
+        }
+
+        // the first was evicted by the others, so it is fetched again
+        service.get(first);
+        Mockito.verify(github, Mockito.times(2)).get("/repos/example/repo/pulls/0");
+    }
+
+    @Test
+    void testListsOpenPages() throws Exception {
+        var first =
+                "{\"repository\":{\"pullRequests\":{\"pageInfo\":{\"hasNextPage\":true,"
+                        + "\"endCursor\":\"c1\"},\"nodes\":[{\"url\":\"u1\",\"title\":\"t1\","
+                        + "\"body\":\"b1\",\"author\":{\"__typename\":\"Bot\","
+                        + "\"login\":\"renovate\"}}]}}}";
+        var second =
+                "{\"repository\":{\"pullRequests\":{\"pageInfo\":{\"hasNextPage\":false,"
+                        + "\"endCursor\":null},\"nodes\":[{\"url\":\"u2\",\"title\":\"t2\","
+                        + "\"body\":null,\"author\":null}]}}}";
+        Mockito.when(github.isEnabled()).thenReturn(true);
+        Mockito.when(github.graphql(Mockito.anyString(), Mockito.anyMap()))
+                .thenReturn(service.mapper.readTree(first), service.mapper.readTree(second));
+
+        MatcherAssert.assertThat(
+                service.listOpen("example", "repo"),
+                Matchers.equalTo(
+                        List.of(
+                                new PullRequest("u1", "t1", "b1", "renovate[bot]"),
+                                new PullRequest("u2", "t2", "", ""))));
+        Mockito.verify(github)
+                .graphql(
+                        Mockito.anyString(),
+                        Mockito.argThat(variables -> "c1".equals(variables.get("cursor"))));
+    }
+
+    @Test
+    void testPullRequestList() throws Exception {
+        MatcherAssert.assertThat(
+                PullRequestService.pullRequestList(
+                                URI.create("https://github.com/example/repo").toURL())
+                        .map(URL::toString),
+                Matchers.equalTo(Optional.of("https://github.com/example/repo/pulls")));
+        MatcherAssert.assertThat(
+                PullRequestService.pullRequestList(
+                        URI.create("https://github.com/example/repo/pull/1").toURL()),
+                Matchers.equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testIsPullRequest() throws Exception {
+        MatcherAssert.assertThat(
+                PullRequestService.isPullRequest(
+                        URI.create("https://github.com/example/repo/pull/12").toURL()),
+                Matchers.is(true));
+        MatcherAssert.assertThat(
+                PullRequestService.isPullRequest(
+                        URI.create("https://github.com/example/repo").toURL()),
+                Matchers.is(false));
+    }
+}
@@ -18,8 +18,10 @@ package com.github.andrewazores.integrations.github.dependabot;
 import java.net.URI;
 import java.util.List;
 
+import com.github.andrewazores.integrations.UnrecognizedSourceException;
+import com.github.andrewazores.integrations.github.PullRequest;
+import com.github.andrewazores.integrations.github.PullRequestService;
 import com.github.andrewazores.model.GroupArtifactVersion;
-import com.github.andrewazores.scripting.CliSupport;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
@@ -34,13 +36,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class GitHubDependabotPullRequestIntegrationTest {
 
-    @Mock CliSupport cli;
+    @Mock PullRequestService pullRequests;
     GitHubDependabotPullRequestIntegration ghPr;
 
     @BeforeEach
     void setup() {
         this.ghPr = new GitHubDependabotPullRequestIntegration();
-        this.ghPr.cli = cli;
+        this.ghPr.pullRequests = pullRequests;
     }
 
     @ParameterizedTest
@@ -54,10 +56,10 @@ class GitHubDependabotPullRequestIntegrationTest {
     void testPrTitleAcceptance(String title, String group, String artifact, String version)
             throws Exception {
         var url = URI.create("http://example.com").toURL();
-        var sr = new CliSupport.ScriptResult(0, List.of(title), List.of());
-        Mockito.when(cli.script(Mockito.any(String[].class))).thenReturn(sr);
+        Mockito.when(pullRequests.get(url))
+                .thenReturn(new PullRequest(url.toString(), title, "", "app/dependabot"));
         if (group == null) {
-            Assertions.assertThrows(RuntimeException.class, () -> ghPr.apply(url));
+            Assertions.assertThrows(UnrecognizedSourceException.class, () -> ghPr.apply(url));
         } else {
             MatcherAssert.assertThat(
                     ghPr.apply(url),
@@ -73,9 +75,8 @@ class GitHubDependabotPullRequestIntegrationTest {
     void testPrBodyAcceptance(String body, String group, String artifact, String version)
             throws Exception {
         var url = URI.create("http://example.com").toURL();
-        var sr1 = new CliSupport.ScriptResult(0, List.of(""), List.of());
-        var sr2 = new CliSupport.ScriptResult(0, List.of(body), List.of());
-        Mockito.when(cli.script(Mockito.any(String[].class))).thenReturn(sr1).thenReturn(sr2);
+        Mockito.when(pullRequests.get(url))
+                .thenReturn(new PullRequest(url.toString(), "", body, "app/dependabot"));
         if (group == null) {
             MatcherAssert.assertThat(ghPr.apply(url), Matchers.equalTo(List.of()));
         } else {
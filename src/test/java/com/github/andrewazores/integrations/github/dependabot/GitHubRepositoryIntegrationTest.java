@@ -0,0 +1,56 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.integrations.github.dependabot;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+
+class GitHubRepositoryIntegrationTest {
+
+    @Test
+    void testReadPoms() throws Exception {
+        var archive = new ByteArrayOutputStream();
+        try (var zip = new ZipOutputStream(archive)) {
+            zip.putNextEntry(new ZipEntry("owner-repo-abc123/"));
+            for (var name :
+                    new String[] {
+                        "owner-repo-abc123/pom.xml",
+                        "owner-repo-abc123/README.md",
+                        "owner-repo-abc123/core/pom.xml",
+                        "owner-repo-abc123/core/src/main/resources/not-a-pom.xml",
+                    }) {
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(name.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        var poms =
+                GitHubRepositoryIntegration.readPoms(
+                        new ByteArrayInputStream(archive.toByteArray()));
+        MatcherAssert.assertThat(
+                poms.keySet(), Matchers.containsInAnyOrder("pom.xml", "core/pom.xml"));
+        MatcherAssert.assertThat(
+                new String(poms.get("core/pom.xml"), StandardCharsets.UTF_8),
+                Matchers.equalTo("owner-repo-abc123/core/pom.xml"));
+    }
+}
@@ -20,8 +20,10 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.List;
 
+import com.github.andrewazores.integrations.UnrecognizedSourceException;
+import com.github.andrewazores.integrations.github.PullRequest;
+import com.github.andrewazores.integrations.github.PullRequestService;
 import com.github.andrewazores.model.GroupArtifactVersion;
-import com.github.andrewazores.scripting.CliSupport;
 import org.hamcrest.MatcherAssert;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Assertions;
@@ -37,13 +39,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 @ExtendWith(MockitoExtension.class)
 class GitHubRenovatePullRequestIntegrationTest {
 
-    @Mock CliSupport cli;
+    @Mock PullRequestService pullRequests;
     GitHubRenovatePullRequestIntegration ghPr;
 
     @BeforeEach
     void setup() {
         this.ghPr = new GitHubRenovatePullRequestIntegration();
-        this.ghPr.cli = cli;
+        this.ghPr.pullRequests = pullRequests;
     }
 
     @ParameterizedTest
@@ -59,10 +61,10 @@ class GitHubRenovatePullRequestIntegrationTest {
     void testPrTitleAcceptance(String title, String group, String artifact, String version)
             throws Exception {
         var url = URI.create("http://example.com").toURL();
-        var sr = new CliSupport.ScriptResult(0, List.of(title), List.of());
-        Mockito.when(cli.script(Mockito.any(String[].class))).thenReturn(sr);
+        Mockito.when(pullRequests.get(url))
+                .thenReturn(new PullRequest(url.toString(), title, "", "app/renovate"));
         if (group == null) {
-            Assertions.assertThrows(RuntimeException.class, () -> ghPr.apply(url));
+            Assertions.assertThrows(UnrecognizedSourceException.class, () -> ghPr.apply(url));
         } else {
             MatcherAssert.assertThat(
                     ghPr.apply(url),
@@ -80,8 +82,8 @@ class GitHubRenovatePullRequestIntegrationTest {
                                         .getClassLoader()
                                         .getResource("renovate-pr-title.txt")
                                         .toURI()));
-        var sr = new CliSupport.ScriptResult(0, List.of(title.strip()), List.of());
-        Mockito.when(cli.script(Mockito.any(String[].class))).thenReturn(sr);
+        Mockito.when(pullRequests.get(url))
+                .thenReturn(new PullRequest(url.toString(), title.strip(), "", "app/renovate"));
         MatcherAssert.assertThat(
                 ghPr.apply(url),
                 Matchers.equalTo(
@@ -100,9 +102,8 @@ class GitHubRenovatePullRequestIntegrationTest {
                                         .getClassLoader()
                                         .getResource("renovate-pr-body.txt")
                                         .toURI()));
-        var sr1 = new CliSupport.ScriptResult(0, List.of(""), List.of());
-        var sr2 = new CliSupport.ScriptResult(0, List.of(body), List.of());
-        Mockito.when(cli.script(Mockito.any(String[].class))).thenReturn(sr1).thenReturn(sr2);
+        Mockito.when(pullRequests.get(url))
+                .thenReturn(new PullRequest(url.toString(), "", body, "app/renovate"));
         MatcherAssert.assertThat(
                 ghPr.apply(url),
                 Matchers.equalTo(
@@ -127,9 +128,8 @@ class GitHubRenovatePullRequestIntegrationTest {
     void testPrBodyAcceptance(String body, String group, String artifact, String version)
             throws Exception {
         var url = URI.create("http://example.com").toURL();
-        var sr1 = new CliSupport.ScriptResult(0, List.of(""), List.of());
-        var sr2 = new CliSupport.ScriptResult(0, List.of(body), List.of());
-        Mockito.when(cli.script(Mockito.any(String[].class))).thenReturn(sr1).thenReturn(sr2);
+        Mockito.when(pullRequests.get(url))
+                .thenReturn(new PullRequest(url.toString(), "", body, "app/renovate"));
         if (group == null) {
             MatcherAssert.assertThat(ghPr.apply(url), Matchers.equalTo(List.of()));
         } else {
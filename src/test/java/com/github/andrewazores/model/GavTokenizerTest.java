@@ -0,0 +1,135 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.regex.Pattern;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class GavTokenizerTest {
+
+    // the expressions the tokenizer replaces, kept as a reference for its validation rules
+    private static final Pattern GAV_PATTERN =
+            Pattern.compile(
+                    "^(?<group>[a-z0-9._-]+):(?<artifact>[a-z0-9._-]+)(?::(?<version>[a-z0-9._-]+))?$",
+                    Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+    private static final Pattern DEP_PATTERN =
+            Pattern.compile(
+                    "^[\\s]*(?<group>[a-z0-9._-]+):(?<artifact>[a-z0-9._-]+):(?<packaging>[a-z0-9._-]+):(?<version>[a-z0-9._-]+).*",
+                    Pattern.MULTILINE | Pattern.CASE_INSENSITIVE);
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "org.slf4j:slf4j-api:2.0.12",
+                "info.picocli:picocli",
+                "IO.Quarkus:Quarkus_Core:3.13.2.Final-redhat-00001",
+                "a:b",
+                "a:b:c",
+                "a:b:",
+                "a::c",
+                ":b:c",
+                "a:b:c:d",
+                "a",
+                "a:",
+                ":",
+                "",
+                "a:b:c ",
+                " a:b:c",
+                "a:b:c\n",
+                "a:b\nc:d",
+                "a:b/c",
+                "a:b:1.0+build",
+                "https://github.com/foo/bar",
+                "org.ünicode:artifact",
+                "K:k",
+            })
+    void testParseMatchesPattern(String input) {
+        var matcher = GAV_PATTERN.matcher(input);
+        if (matcher.matches()) {
+            MatcherAssert.assertThat(
+                    GavTokenizer.parse(input),
+                    Matchers.equalTo(
+                            new GroupArtifactVersion(
+                                    matcher.group("group"),
+                                    matcher.group("artifact"),
+                                    matcher.group("version"))));
+        } else {
+            Assertions.assertThrows(
+                    IllegalArgumentException.class, () -> GavTokenizer.parse(input));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(
+            strings = {
+                "   org.slf4j:slf4j-api:jar:2.0.12:compile",
+                "org.slf4j:slf4j-api:jar:2.0.12",
+                "\tio.netty:netty-transport-native-epoll:jar:linux-x86_64:4.1.112.Final:runtime",
+                "   org.example:lib:jar:1.0:compile (optional)",
+                "   org.example:lib:jar:1.0 -- module lib",
+                "The following files have been resolved:",
+                "   none",
+                "   org.example:lib:jar:",
+                "   org.example:lib:jar",
+                "   org.example::jar:1.0",
+                "",
+                "   ",
+            })
+    void testParseDependencyMatchesPattern(String line) {
+        var matcher = DEP_PATTERN.matcher(line);
+        var expected =
+                matcher.matches()
+                        ? new GroupArtifactVersion(
+                                matcher.group("group"),
+                                matcher.group("artifact"),
+                                matcher.group("version"))
+                        : null;
+        MatcherAssert.assertThat(GavTokenizer.parseDependency(line), Matchers.equalTo(expected));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "https://github.com/foo/bar/pull/1, true",
+        "HTTP://example.com/pom.xml, true",
+        "file:pom.xml, true",
+        "file:///tmp/pom.xml, true",
+        "jar:file:/tmp/a.jar!/pom.xml, true",
+        "jar:foo, true",
+        "org.slf4j:slf4j-api, false",
+        "org.slf4j:slf4j-api:2.0.12, false",
+        "httpx://example.com, false",
+        "pom.xml, false",
+    })
+    void testIsUrl(String input, boolean expected) {
+        MatcherAssert.assertThat(GavTokenizer.isUrl(input), Matchers.is(expected));
+        // only the scheme is checked, so some inputs with a URL scheme still fail to parse as
+        // URLs, but every input that parses as a URL must be recognized
+        try {
+            new URL(input);
+            MatcherAssert.assertThat(expected, Matchers.is(true));
+        } catch (MalformedURLException e) {
+            // not a URL
+        }
+    }
+}
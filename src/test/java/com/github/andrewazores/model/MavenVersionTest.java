@@ -0,0 +1,65 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MavenVersionTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "1-alpha1, 1-beta1",
+        "1-beta1, 1-m1",
+        "1-m1, 1-rc1",
+        "1-rc1, 1-SNAPSHOT",
+        "1-SNAPSHOT, 1",
+        "1, 1-sp",
+        "1-sp, 1-redhat-00001",
+        "1-redhat-00001, 1-redhat-00002",
+        "1-redhat-00002, 1.0.1",
+        "1.2.9, 1.2.10",
+        "1.2.3, 1.2.3.redhat-00001",
+        "1.2.3.redhat-00001, 1.2.4",
+        "2.0.12, 2.1.0-alpha0",
+        "2.1.0-alpha0, 2.1.0-alpha1",
+        "1, 10000000000000000000000",
+    })
+    void testOrdering(String lower, String higher) {
+        var l = MavenVersion.parse(lower);
+        var h = MavenVersion.parse(higher);
+        MatcherAssert.assertThat(l.compareTo(h), Matchers.lessThan(0));
+        MatcherAssert.assertThat(h.compareTo(l), Matchers.greaterThan(0));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "1, 1.0.0",
+        "1.0, 1-ga",
+        "1.0, 1.Final",
+        "1-cr1, 1-rc1",
+        "1-a1, 1-alpha-1",
+        "01, 1"
+    })
+    void testEquivalence(String a, String b) {
+        MatcherAssert.assertThat(MavenVersion.parse(a), Matchers.equalTo(MavenVersion.parse(b)));
+        MatcherAssert.assertThat(
+                MavenVersion.parse(a).hashCode(),
+                Matchers.equalTo(MavenVersion.parse(b).hashCode()));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.model;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class MavenVersioningTest {
+
+    private static final List<String> FULL_LISTING =
+            List.of(
+                    "2.1.0-alpha1",
+                    "2.1.0-alpha0",
+                    "2.0.13",
+                    "2.0.12.redhat-00001",
+                    "2.0.12",
+                    "2.0.0",
+                    "1.7.36");
+
+    @Test
+    void testParseFromExampleFile() throws Exception {
+        try (var stream = getClass().getClassLoader().getResourceAsStream("maven-metadata.xml")) {
+            var versioning = MavenVersioning.parse(stream);
+            MatcherAssert.assertThat(versioning.latest(), Matchers.equalTo("2.1.0-alpha1"));
+            MatcherAssert.assertThat(versioning.release(), Matchers.equalTo("2.1.0-alpha1"));
+            MatcherAssert.assertThat(versioning.versions(), Matchers.equalTo(FULL_LISTING));
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({"1, 2.1.0-alpha1", "3, 2.1.0-alpha1;2.1.0-alpha0;2.0.13", "0,", "-1,", "100,"})
+    void testParseWithLimit(int limit, String expected) throws Exception {
+        try (var stream = getClass().getClassLoader().getResourceAsStream("maven-metadata.xml")) {
+            var versioning = MavenVersioning.parse(stream, limit);
+            var versions = expected == null ? FULL_LISTING : Arrays.asList(expected.split(";"));
+            MatcherAssert.assertThat(versioning.versions(), Matchers.equalTo(versions));
+        }
+    }
+
+    @Test
+    void testLimitBeyondSize() {
+        var versioning = new MavenVersioning("2.0", "2.0", List.of("2.0", "1.0"));
+        MatcherAssert.assertThat(versioning.limit(5), Matchers.sameInstance(versioning));
+        MatcherAssert.assertThat(versioning.limit(1).versions(), Matchers.equalTo(List.of("2.0")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "2.0.12, 2.0.12",
+        "2.0.13, 2.0.13",
+        "2.1.0, 2.1.0-alpha1",
+        "1.7, 1.7.36",
+        "2.0.14,",
+        "2.1.0-alpha,",
+    })
+    void testBestMatch(String version, String expected) {
+        var versioning = new MavenVersioning("2.1.0-alpha1", "2.1.0-alpha1", FULL_LISTING);
+        MatcherAssert.assertThat(
+                versioning.bestMatch(version).orElse(null), Matchers.equalTo(expected));
+    }
+
+    @Test
+    void testBestMatchPrefersHighestQualifiedVariant() {
+        var versioning =
+                new MavenVersioning(
+                        "N/A",
+                        "N/A",
+                        List.of("1.2.3.redhat-00002", "1.2.3.redhat-00010", "1.2.3.Final"));
+        MatcherAssert.assertThat(
+                versioning.bestMatch("1.2.3").orElseThrow(),
+                Matchers.equalTo("1.2.3.redhat-00010"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "2.0.14, 2.0.13",
+        "2.0.12.redhat-00002, 2.0.12.redhat-00001",
+        "2.1.0, 2.1.0-alpha1",
+        "1.0, 1.7.36",
+        "3.0, 2.1.0-alpha1",
+    })
+    void testNearest(String version, String expected) {
+        var versioning = new MavenVersioning("2.1.0-alpha1", "2.1.0-alpha1", FULL_LISTING);
+        MatcherAssert.assertThat(
+                versioning.nearest(version).orElseThrow(), Matchers.equalTo(expected));
+    }
+
+    @Test
+    void testParseWithoutLatestOrRelease() throws Exception {
+        var xml =
+                "<metadata><versioning><versions><version>1.0</version></versions>"
+                        + "</versioning></metadata>";
+        var versioning =
+                MavenVersioning.parse(
+                        new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+        MatcherAssert.assertThat(versioning.latest(), Matchers.equalTo("N/A"));
+        MatcherAssert.assertThat(versioning.release(), Matchers.equalTo("N/A"));
+        MatcherAssert.assertThat(versioning.versions(), Matchers.equalTo(List.of("1.0")));
+    }
+
+    @Test
+    void testParseRejectsMissingVersions() {
+        var xml = "<metadata><groupId>g</groupId></metadata>";
+        Assertions.assertThrows(
+                IOException.class,
+                () ->
+                        MavenVersioning.parse(
+                                new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+    }
+}
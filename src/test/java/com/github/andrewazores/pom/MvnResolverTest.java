@@ -0,0 +1,201 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.scripting.CliSupport;
+import com.github.andrewazores.util.Futures;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+@DisabledOnOs(OS.WINDOWS)
+class MvnResolverTest {
+
+    // stands in for mvn: counts its runs, and lists one dependency named after the artifactId of
+    // the given POM, or of each module of an aggregator. Those named broken fail to build by
+    // themselves, and those named invalid stop the whole reactor before anything is listed.
+    private static final String FAKE_MVN =
+            """
+            #!/bin/sh
+            echo run >> "$(dirname "$0")/runs"
+            for arg; do
+              case "$arg" in
+                --file=*) pom="${arg#--file=}";;
+                -DoutputFile=*) output="${arg#-DoutputFile=}";;
+              esac
+            done
+            name() {
+              sed -n 's:.*<artifactId>\\(.*\\)</artifactId>.*:\\1:p' "$1"
+            }
+            list() {
+              case "$(name "$1")" in
+                broken|invalid) return 1;;
+              esac
+              mkdir -p "$(dirname "$2")"
+              echo "   g:$(name "$1"):jar:1" > "$2"
+            }
+            case "$output" in
+              /*) list "$pom" "$output"; exit $?;;
+            esac
+            dir="$(dirname "$pom")"
+            modules="$(sed -n 's:.*<module>\\(.*\\)</module>.*:\\1:p' "$pom")"
+            for module in $modules; do
+              if [ "$(name "$dir/$module/pom.xml")" = invalid ]; then
+                exit 1
+              fi
+            done
+            status=0
+            for module in $modules; do
+              list "$dir/$module/pom.xml" "$dir/$module/$output" || status=1
+            done
+            exit $status
+            """;
+
+    @TempDir Path dir;
+    MvnResolver resolver;
+
+    @BeforeEach
+    void setup() throws Exception {
+        var mvn = dir.resolve("bin/mvn");
+        Files.createDirectories(mvn.getParent());
+        Files.writeString(mvn, FAKE_MVN, StandardCharsets.UTF_8);
+        Files.setPosixFilePermissions(mvn, PosixFilePermissions.fromString("rwxr-xr-x"));
+
+        // runs the commands directly
+        var cli = Mockito.mock(CliSupport.class);
+        Mockito.when(cli.which(Mockito.anyString()))
+                .thenAnswer(
+                        invocation ->
+                                Optional.of(Path.of(invocation.getArgument(0, String.class))));
+        Mockito.when(cli.script(Mockito.any(String[].class)))
+                .thenAnswer(
+                        invocation -> {
+                            var command = new ArrayList<String>();
+                            for (var arg : invocation.getArguments()) {
+                                if (arg instanceof String[] args) {
+                                    command.addAll(List.of(args));
+                                } else {
+                                    command.add((String) arg);
+                                }
+                            }
+                            var proc =
+                                    new ProcessBuilder(command)
+                                            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                                            .redirectError(ProcessBuilder.Redirect.DISCARD)
+                                            .start();
+                            return new CliSupport.ScriptResult(
+                                    proc.waitFor(), List.of(), List.of());
+                        });
+        resolver = new MvnResolver();
+        resolver.cli = cli;
+        resolver.includeScope = "compile";
+        resolver.executables = List.of(mvn.toString());
+        resolver.batchWindow = Duration.ofSeconds(1);
+    }
+
+    @Test
+    void testBatchesConcurrentPoms() throws Exception {
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var results = new ArrayList<Future<List<GroupArtifactVersion>>>();
+            for (var name : List.of("a", "b", "broken")) {
+                var pom = Files.readAllBytes(pom(name));
+                results.add(executor.submit(() -> resolver.standaloneDependencies(pom)));
+            }
+
+            MatcherAssert.assertThat(
+                    Futures.await(results.get(0)),
+                    Matchers.contains(new GroupArtifactVersion("g", "a", "1")));
+            MatcherAssert.assertThat(
+                    Futures.await(results.get(1)),
+                    Matchers.contains(new GroupArtifactVersion("g", "b", "1")));
+            var e = Assertions.assertThrows(ExecutionException.class, results.get(2)::get);
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IOException.class));
+            // the batch, then the broken POM by itself
+            MatcherAssert.assertThat(
+                    Files.readAllLines(dir.resolve("bin/runs")), Matchers.hasSize(2));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testRetriesPomsAloneWhenReactorFails() throws Exception {
+        var executor = Executors.newFixedThreadPool(3);
+        try {
+            var results = new ArrayList<Future<List<GroupArtifactVersion>>>();
+            for (var name : List.of("a", "invalid", "b")) {
+                var pom = Files.readAllBytes(pom(name));
+                results.add(executor.submit(() -> resolver.standaloneDependencies(pom)));
+            }
+
+            MatcherAssert.assertThat(
+                    Futures.await(results.get(0)),
+                    Matchers.contains(new GroupArtifactVersion("g", "a", "1")));
+            MatcherAssert.assertThat(
+                    Futures.await(results.get(2)),
+                    Matchers.contains(new GroupArtifactVersion("g", "b", "1")));
+            var e = Assertions.assertThrows(ExecutionException.class, results.get(1)::get);
+            MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IOException.class));
+            // the batch, then each POM by itself
+            MatcherAssert.assertThat(
+                    Files.readAllLines(dir.resolve("bin/runs")), Matchers.hasSize(4));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testListsPomOnDiskInPlace() throws Exception {
+        MatcherAssert.assertThat(
+                resolver.dependencies(pom("a")),
+                Matchers.contains(new GroupArtifactVersion("g", "a", "1")));
+        MatcherAssert.assertThat(Files.exists(dir.resolve("a/target")), Matchers.is(false));
+    }
+
+    private Path pom(String name) throws IOException {
+        var pom = dir.resolve(name).resolve("pom.xml");
+        Files.createDirectories(pom.getParent());
+        Files.writeString(
+                pom,
+                String.format(
+                        "<project><groupId>g</groupId><artifactId>%s</artifactId>"
+                                + "<version>1</version></project>",
+                        name),
+                StandardCharsets.UTF_8);
+        return pom;
+    }
+}
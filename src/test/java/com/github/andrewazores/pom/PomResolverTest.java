@@ -0,0 +1,486 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import com.github.andrewazores.repository.RepositoryTransport;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.Mockito;
+
+class PomResolverTest {
+
+    private static final String PARENT =
+            """
+            <project>
+              <groupId>org.example</groupId>
+              <artifactId>parent</artifactId>
+              <version>1.0.0</version>
+              <packaging>pom</packaging>
+              <properties>
+                <slf4j.version>1.7.36</slf4j.version>
+                <bom.version>0.1</bom.version>
+              </properties>
+              <dependencyManagement>
+                <dependencies>
+                  <dependency>
+                    <groupId>org.example</groupId>
+                    <artifactId>bom</artifactId>
+                    <version>${bom.version}</version>
+                    <type>pom</type>
+                    <scope>import</scope>
+                  </dependency>
+                  <dependency>
+                    <groupId>org.junit.jupiter</groupId>
+                    <artifactId>junit-jupiter</artifactId>
+                    <version>5.11.0</version>
+                    <scope>test</scope>
+                  </dependency>
+                </dependencies>
+              </dependencyManagement>
+              <dependencies>
+                <dependency>
+                  <groupId>org.example</groupId>
+                  <artifactId>common</artifactId>
+                  <version>${project.version}</version>
+                </dependency>
+              </dependencies>
+            </project>
+            """;
+
+    private static final String CHILD =
+            """
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+              <parent>
+                <groupId>org.example</groupId>
+                <artifactId>parent</artifactId>
+                <version>1.0.0</version>
+              </parent>
+              <artifactId>child</artifactId>
+              <version>${revision}</version>
+              <properties>
+                <revision>1.1.0</revision>
+                <slf4j.version>2.0.13</slf4j.version>
+                <bom.version>2.0</bom.version>
+              </properties>
+              <dependencies>
+                <dependency>
+                  <groupId>org.slf4j</groupId>
+                  <artifactId>slf4j-api</artifactId>
+                  <version>${slf4j.version}</version>
+                </dependency>
+                <dependency>
+                  <groupId>com.acme</groupId>
+                  <artifactId>lib</artifactId>
+                </dependency>
+                <dependency>
+                  <groupId>${project.groupId}</groupId>
+                  <artifactId>api</artifactId>
+                  <version>${project.version}</version>
+                  <scope>provided</scope>
+                </dependency>
+                <dependency>
+                  <groupId>org.junit.jupiter</groupId>
+                  <artifactId>junit-jupiter</artifactId>
+                </dependency>
+              </dependencies>
+            </project>
+            """;
+
+    private static final String BOM =
+            """
+            <project>
+              <parent>
+                <groupId>org.example</groupId>
+                <artifactId>bom-parent</artifactId>
+                <version>2.0</version>
+              </parent>
+              <artifactId>bom</artifactId>
+              <packaging>pom</packaging>
+              <dependencyManagement>
+                <dependencies>
+                  <dependency>
+                    <groupId>com.acme</groupId>
+                    <artifactId>lib</artifactId>
+                    <version>${acme.version}</version>
+                    <scope>runtime</scope>
+                  </dependency>
+                </dependencies>
+              </dependencyManagement>
+            </project>
+            """;
+
+    private static final String BOM_PARENT =
+            """
+            <project>
+              <groupId>org.example</groupId>
+              <artifactId>bom-parent</artifactId>
+              <version>2.0</version>
+              <packaging>pom</packaging>
+              <properties>
+                <acme.version>2.5</acme.version>
+              </properties>
+            </project>
+            """;
+
+    @TempDir Path dir;
+
+    PomResolver resolver;
+    Path child;
+
+    @BeforeEach
+    void setup() throws IOException {
+        write(dir.resolve("project/pom.xml"), PARENT);
+        child = dir.resolve("project/child/pom.xml");
+        write(child, CHILD);
+        write(dir.resolve("repository/org/example/bom/2.0/bom-2.0.pom"), BOM);
+        write(dir.resolve("repository/org/example/bom-parent/2.0/bom-parent-2.0.pom"), BOM_PARENT);
+
+        resolver = new PomResolver();
+        resolver.transport = new RepositoryTransport();
+        resolver.localRepository = Optional.of(dir.resolve("repository").toString());
+        resolver.remoteRepositories = List.of();
+        resolver.concurrency = 4;
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "compile, org.slf4j:slf4j-api:2.0.13;org.example:api:1.1.0;org.example:common:1.1.0",
+        "runtime, org.slf4j:slf4j-api:2.0.13;com.acme:lib:2.5;org.example:common:1.1.0",
+        "test,"
+                + " org.slf4j:slf4j-api:2.0.13;com.acme:lib:2.5;org.example:api:1.1.0;"
+                + "org.junit.jupiter:junit-jupiter:5.11.0;org.example:common:1.1.0",
+    })
+    void testDependencies(String scope, String expected) throws Exception {
+        var deps = resolver.dependencies(parse(child), child.toUri(), scope, false);
+        MatcherAssert.assertThat(
+                deps.stream().map(GroupArtifactVersion::toString).toList(),
+                Matchers.containsInAnyOrder(expected.split(";")));
+    }
+
+    @Test
+    void testIncludeParents() throws Exception {
+        write(
+                dir.resolve("repository/com/acme/lib/2.5/lib-2.5.pom"),
+                """
+                <project>
+                  <parent>
+                    <groupId>org.example</groupId>
+                    <artifactId>bom-parent</artifactId>
+                    <version>2.0</version>
+                  </parent>
+                  <groupId>com.acme</groupId>
+                  <artifactId>lib</artifactId>
+                  <version>2.5</version>
+                </project>
+                """);
+        var project =
+                new Pom(
+                        null,
+                        null,
+                        "org.example",
+                        "app",
+                        "1.0",
+                        null,
+                        Map.of(),
+                        List.of(
+                                new PomDependency(
+                                        "com.acme",
+                                        "lib",
+                                        "2.5",
+                                        null,
+                                        null,
+                                        null,
+                                        false,
+                                        List.of())),
+                        List.of(),
+                        List.of());
+        MatcherAssert.assertThat(
+                resolver.dependencies(project, null, "compile", true),
+                Matchers.contains(
+                        new GroupArtifactVersion("com.acme", "lib", "2.5"),
+                        new GroupArtifactVersion("org.example", "bom-parent", "2.0")));
+    }
+
+    @Test
+    void testTransitive() throws Exception {
+        // a and b both depend on c, and the nearer first declaration wins. x is excluded below a,
+        // optional and test dependencies are not transitive, and e is managed by the root. d and
+        // e have no POMs, but are still reported.
+        writeLibrary(
+                "a",
+                """
+                <dependency><groupId>t</groupId><artifactId>c</artifactId><version>1</version>
+                </dependency>
+                <dependency><groupId>t</groupId><artifactId>x</artifactId><version>1</version>
+                </dependency>
+                <dependency><groupId>t</groupId><artifactId>o</artifactId><version>1</version>
+                  <optional>true</optional></dependency>
+                <dependency><groupId>t</groupId><artifactId>t</artifactId><version>1</version>
+                  <scope>test</scope></dependency>
+                """);
+        writeLibrary(
+                "b",
+                """
+                <dependency><groupId>t</groupId><artifactId>c</artifactId><version>2</version>
+                </dependency>
+                <dependency><groupId>t</groupId><artifactId>d</artifactId><version>1</version>
+                  <scope>runtime</scope></dependency>
+                """);
+        writeLibrary(
+                "c",
+                """
+                <dependency><groupId>t</groupId><artifactId>e</artifactId><version>1</version>
+                </dependency>
+                <dependency><groupId>t</groupId><artifactId>x</artifactId><version>1</version>
+                </dependency>
+                """);
+        var project =
+                new Pom(
+                        null,
+                        null,
+                        "org.example",
+                        "app",
+                        "1.0",
+                        null,
+                        Map.of(),
+                        List.of(
+                                new PomDependency(
+                                        "t", "a", "1", null, null, null, false, List.of("t:x")),
+                                new PomDependency(
+                                        "t", "b", "1", null, null, null, false, List.of())),
+                        List.of(
+                                new PomDependency(
+                                        "t", "e", "9", null, null, null, false, List.of())),
+                        List.of());
+
+        var runtime = new ArrayList<String>();
+        resolver.transitive(project, null, "runtime", false, gav -> runtime.add(gav.toString()));
+        MatcherAssert.assertThat(
+                runtime, Matchers.contains("t:a:1", "t:b:1", "t:c:1", "t:d:1", "t:e:9"));
+
+        var compile = new ArrayList<String>();
+        resolver.transitive(project, null, "compile", false, gav -> compile.add(gav.toString()));
+        MatcherAssert.assertThat(compile, Matchers.contains("t:a:1", "t:b:1", "t:c:1", "t:e:9"));
+    }
+
+    @Test
+    void testSnapshotsAreNotKept() throws Exception {
+        var pom = dir.resolve("repository/t/s/1-SNAPSHOT/s-1-SNAPSHOT.pom");
+        var project =
+                new Pom(
+                        null,
+                        null,
+                        "org.example",
+                        "app",
+                        "1.0",
+                        null,
+                        Map.of(),
+                        List.of(
+                                new PomDependency(
+                                        "t",
+                                        "s",
+                                        "1-SNAPSHOT",
+                                        null,
+                                        null,
+                                        null,
+                                        false,
+                                        List.of())),
+                        List.of(),
+                        List.of());
+        for (var parent : List.of("p1", "p2")) {
+            writeLibrary(parent, "");
+            write(
+                    pom,
+                    String.format(
+                            """
+                            <project>
+                              <parent><groupId>t</groupId><artifactId>%s</artifactId>
+                                <version>1</version></parent>
+                              <groupId>t</groupId><artifactId>s</artifactId>
+                              <version>1-SNAPSHOT</version>
+                            </project>
+                            """,
+                            parent));
+            var context = new ResolutionContext(List.of(), Map.of(), m -> {});
+            MatcherAssert.assertThat(
+                    resolver.dependencies(project, null, context, "compile", true),
+                    Matchers.hasItem(new GroupArtifactVersion("t", parent, "1")));
+            Assertions.assertTrue(context.usedSnapshots());
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "compile, compile, compile",
+        "compile, runtime, runtime",
+        "runtime, compile, runtime",
+        "test, runtime, test",
+        "provided, compile, provided",
+        "compile, test,",
+        "compile, provided,",
+    })
+    void testTransitiveScope(String parent, String scope, String expected) {
+        MatcherAssert.assertThat(
+                PomResolver.transitiveScope(parent, scope), Matchers.equalTo(expected));
+    }
+
+    @Test
+    void testUnresolvableVersionFails() throws Exception {
+        write(child, CHILD.replace("${slf4j.version}", "${undefined.version}"));
+        Assertions.assertThrows(
+                IOException.class,
+                () -> resolver.dependencies(parse(child), child.toUri(), "compile", false));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"env.PATH", "user.home"})
+    void testEnvironmentIsNotInterpolated(String key) throws Exception {
+        write(child, CHILD.replace("${slf4j.version}", "${" + key + "}"));
+        var e =
+                Assertions.assertThrows(
+                        IOException.class,
+                        () -> resolver.dependencies(parse(child), child.toUri(), "compile", false));
+        MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("${" + key + "}"));
+    }
+
+    @Test
+    void testAbsoluteRelativePathIsIgnored() throws Exception {
+        // the parent is moved elsewhere on disk, where it is found by a relative path but a POM
+        // may not point at it absolutely
+        Files.move(dir.resolve("project/pom.xml"), dir.resolve("elsewhere.xml"));
+        write(child, withRelativePath(CHILD, "../../elsewhere.xml"));
+        MatcherAssert.assertThat(
+                resolver.dependencies(parse(child), child.toUri(), "compile", false),
+                Matchers.not(Matchers.empty()));
+
+        write(child, withRelativePath(CHILD, dir.resolve("elsewhere.xml").toUri().toString()));
+        Assertions.assertThrows(
+                IOException.class,
+                () -> resolver.dependencies(parse(child), child.toUri(), "compile", false));
+    }
+
+    @Test
+    void testUntrustedRemotePomsIgnoreRelativePath() throws Exception {
+        resolver.transport = Mockito.mock(RepositoryTransport.class);
+        var context = new ResolutionContext(List.of(), Map.of(), m -> {}, true, false);
+        Assertions.assertThrows(
+                IOException.class,
+                () ->
+                        resolver.dependencies(
+                                parse(child),
+                                URI.create("https://example.com/project/child/pom.xml"),
+                                context,
+                                "compile",
+                                false));
+        Mockito.verify(resolver.transport, Mockito.never())
+                .open(Mockito.eq("https://example.com/project/pom.xml"), Mockito.anyBoolean());
+    }
+
+    @Test
+    void testMissingParentFails() throws Exception {
+        Files.delete(dir.resolve("project/pom.xml"));
+        Assertions.assertThrows(
+                IOException.class,
+                () -> resolver.dependencies(parse(child), child.toUri(), "compile", false));
+    }
+
+    @Test
+    void testFailingRepositoryIsSkipped() throws Exception {
+        Files.delete(dir.resolve("project/pom.xml"));
+        var path = "org/example/parent/1.0.0/parent-1.0.0.pom";
+        resolver.transport = Mockito.mock(RepositoryTransport.class);
+        Mockito.when(resolver.transport.open(Mockito.startsWith("file:"), Mockito.anyBoolean()))
+                .thenThrow(new FileNotFoundException());
+        Mockito.when(
+                        resolver.transport.open(
+                                Mockito.eq("https://a.example/" + path), Mockito.anyBoolean()))
+                .thenThrow(new IOException("HTTP 503"));
+        Mockito.when(
+                        resolver.transport.open(
+                                Mockito.eq("https://b.example/" + path), Mockito.anyBoolean()))
+                .thenAnswer(i -> new ByteArrayInputStream(PARENT.getBytes(StandardCharsets.UTF_8)));
+
+        var context =
+                new ResolutionContext(
+                        List.of("https://a.example", "https://b.example"), Map.of(), m -> {});
+        MatcherAssert.assertThat(
+                resolver.dependencies(parse(child), child.toUri(), context, "compile", false),
+                Matchers.not(Matchers.empty()));
+
+        var failing = new ResolutionContext(List.of("https://a.example"), Map.of(), m -> {});
+        var e =
+                Assertions.assertThrows(
+                        IOException.class,
+                        () ->
+                                resolver.dependencies(
+                                        parse(child), child.toUri(), failing, "compile", false));
+        MatcherAssert.assertThat(e, Matchers.not(Matchers.instanceOf(FileNotFoundException.class)));
+        MatcherAssert.assertThat(e.getMessage(), Matchers.containsString("HTTP 503"));
+    }
+
+    private static String withRelativePath(String pom, String relativePath) {
+        return pom.replace(
+                "</parent>",
+                String.format("<relativePath>%s</relativePath></parent>", relativePath));
+    }
+
+    private static Pom parse(Path pom) throws IOException {
+        try (var stream = Files.newInputStream(pom)) {
+            return Pom.parse(stream);
+        }
+    }
+
+    private void writeLibrary(String artifactId, String dependencies) throws IOException {
+        write(
+                dir.resolve(String.format("repository/t/%s/1/%s-1.pom", artifactId, artifactId)),
+                String.format(
+                        """
+                        <project>
+                          <groupId>t</groupId>
+                          <artifactId>%s</artifactId>
+                          <version>1</version>
+                          <dependencies>
+                        %s
+                          </dependencies>
+                        </project>
+                        """,
+                        artifactId, dependencies));
+    }
+
+    private static void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+    }
+}
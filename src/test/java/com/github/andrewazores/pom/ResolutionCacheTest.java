@@ -0,0 +1,98 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.pom;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import com.github.andrewazores.model.GroupArtifactVersion;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResolutionCacheTest {
+
+    private static final byte[] POM = "<project/>".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir Path dir;
+
+    ResolutionCache cache;
+
+    @BeforeEach
+    void setup() {
+        cache = new ResolutionCache();
+        cache.enabled = true;
+        cache.directory = dir.toString();
+        cache.ttl = Duration.ofHours(1);
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        var deps =
+                List.of(
+                        new GroupArtifactVersion("org.slf4j", "slf4j-api", "2.0.13"),
+                        new GroupArtifactVersion("com.acme", "lib", "2.5"));
+        var key = ResolutionCache.key(POM, "builtin", "compile", "false", "false");
+        MatcherAssert.assertThat(cache.get(key), Matchers.equalTo(Optional.empty()));
+        cache.put(key, deps);
+        MatcherAssert.assertThat(cache.get(key), Matchers.equalTo(Optional.of(deps)));
+    }
+
+    @Test
+    void testExpired() throws Exception {
+        var key = ResolutionCache.key(POM);
+        cache.put(key, List.of(new GroupArtifactVersion("com.acme", "lib", "2.5")));
+        Files.setLastModifiedTime(
+                dir.resolve("resolved").resolve(key),
+                FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        MatcherAssert.assertThat(cache.get(key), Matchers.equalTo(Optional.empty()));
+    }
+
+    @Test
+    void testKeyDependsOnContentAndSettings() {
+        var key = ResolutionCache.key(POM, "builtin", "compile", "false", "false");
+        MatcherAssert.assertThat(
+                ResolutionCache.key(POM, "builtin", "compile", "false", "false"),
+                Matchers.equalTo(key));
+        MatcherAssert.assertThat(
+                ResolutionCache.key(POM, "builtin", "compile", "true", "false"),
+                Matchers.not(Matchers.equalTo(key)));
+        MatcherAssert.assertThat(
+                ResolutionCache.key(
+                        "<project></project>".getBytes(StandardCharsets.UTF_8),
+                        "builtin",
+                        "compile",
+                        "false",
+                        "false"),
+                Matchers.not(Matchers.equalTo(key)));
+    }
+
+    @Test
+    void testDisabled() throws Exception {
+        cache.enabled = false;
+        var key = ResolutionCache.key(POM);
+        cache.put(key, List.of(new GroupArtifactVersion("com.acme", "lib", "2.5")));
+        MatcherAssert.assertThat(cache.get(key), Matchers.equalTo(Optional.empty()));
+    }
+}
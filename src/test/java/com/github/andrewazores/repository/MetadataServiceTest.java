@@ -0,0 +1,221 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.repository;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.github.andrewazores.model.MavenVersioning;
+import com.github.andrewazores.util.Futures;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetadataServiceTest {
+
+    private static final String ETAG = "\"v1\"";
+    private static final String LAST_MODIFIED = "Thu, 08 Aug 2024 13:05:40 GMT";
+    private static final List<String> VERSIONS =
+            List.of(
+                    "2.1.0-alpha1",
+                    "2.1.0-alpha0",
+                    "2.0.13",
+                    "2.0.12.redhat-00001",
+                    "2.0.12",
+                    "2.0.0",
+                    "1.7.36");
+
+    @TempDir Path dir;
+
+    HttpServer server;
+    MetadataService service;
+    // the status of each response, in order
+    List<Integer> responses = new CopyOnWriteArrayList<>();
+    // released to let responses be sent
+    CountDownLatch respond = new CountDownLatch(0);
+
+    @BeforeEach
+    void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        // answers with an ETag, and Not Modified when it is matched
+        server.createContext(
+                "/repo/etag/",
+                exchange -> {
+                    var headers = exchange.getRequestHeaders();
+                    if (ETAG.equals(headers.getFirst("If-None-Match"))) {
+                        respond(exchange, 304);
+                    } else {
+                        exchange.getResponseHeaders().set("ETag", ETAG);
+                        respond(exchange, 200);
+                    }
+                });
+        // answers with a Last-Modified date, and Not Modified when it is given back
+        server.createContext(
+                "/repo/dated/",
+                exchange -> {
+                    var headers = exchange.getRequestHeaders();
+                    if (LAST_MODIFIED.equals(headers.getFirst("If-Modified-Since"))) {
+                        respond(exchange, 304);
+                    } else {
+                        exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+                        respond(exchange, 200);
+                    }
+                });
+        server.start();
+
+        var transport = new RepositoryTransport();
+        transport.connectTimeout = Duration.ofSeconds(5);
+        transport.readTimeout = Duration.ofSeconds(5);
+        var cache = new MetadataCache();
+        cache.enabled = true;
+        cache.directory = dir.toString();
+        cache.ttl = Duration.ZERO;
+        service = new MetadataService();
+        service.transport = transport;
+        service.cache = cache;
+    }
+
+    @AfterEach
+    void teardown() {
+        server.stop(0);
+    }
+
+    @Test
+    void testRevalidatesWithEtag() throws Exception {
+        testRevalidates(url("etag"));
+    }
+
+    @Test
+    void testRevalidatesWithLastModified() throws Exception {
+        testRevalidates(url("dated"));
+    }
+
+    private void testRevalidates(String url) throws Exception {
+        MatcherAssert.assertThat(service.load(url, 0).versions(), Matchers.equalTo(VERSIONS));
+        var validated = service.cache.get(url).orElseThrow().validated();
+        Thread.sleep(5);
+
+        MatcherAssert.assertThat(
+                service.load(url, 2).versions(), Matchers.equalTo(VERSIONS.subList(0, 2)));
+        MatcherAssert.assertThat(responses, Matchers.equalTo(List.of(200, 304)));
+        // only the parsed versions are kept, not the document itself
+        try (var files = Files.walk(dir)) {
+            MatcherAssert.assertThat(
+                    files.filter(f -> f.toString().endsWith(".xml")).toList(), Matchers.empty());
+        }
+        // a Not Modified answer restarts the entry's TTL
+        MatcherAssert.assertThat(
+                service.cache.get(url).orElseThrow().validated(), Matchers.greaterThan(validated));
+    }
+
+    @Test
+    void testFreshEntriesAreNotRevalidated() throws Exception {
+        service.cache.ttl = Duration.ofHours(1);
+        var url = url("etag");
+        service.load(url, 0);
+        MatcherAssert.assertThat(
+                service.load(url, 1).versions(), Matchers.equalTo(VERSIONS.subList(0, 1)));
+        MatcherAssert.assertThat(responses, Matchers.equalTo(List.of(200)));
+    }
+
+    @Test
+    void testExpiredEntriesAreRevalidated() throws Exception {
+        service.cache.ttl = Duration.ofMillis(1);
+        var url = url("etag");
+        service.load(url, 0);
+        Thread.sleep(5);
+        service.load(url, 0);
+        MatcherAssert.assertThat(responses, Matchers.equalTo(List.of(200, 304)));
+    }
+
+    @Test
+    void testInsecureAndSecureLoadsShareTransport() throws Exception {
+        // each trust mode has its own client, so neither stops the other from being used
+        var url = url("etag");
+        service.load(url, 0, true, m -> {});
+        service.load(url, 0, false, m -> {});
+        service.load(url, 0, true, m -> {});
+        MatcherAssert.assertThat(responses, Matchers.equalTo(List.of(200, 304, 304)));
+    }
+
+    @Test
+    void testConcurrentLoadsShareOneDownload() throws Exception {
+        respond = new CountDownLatch(1);
+        var url = url("etag");
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var results = new ArrayList<Future<MavenVersioning>>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> service.load(url, 0)));
+            }
+            // the first request is held until the others have had a chance to join it
+            Thread.sleep(200);
+            respond.countDown();
+            for (var result : results) {
+                MatcherAssert.assertThat(
+                        Futures.await(result).versions(), Matchers.equalTo(VERSIONS));
+            }
+            MatcherAssert.assertThat(responses, Matchers.equalTo(List.of(200)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private String url(String repository) {
+        return MetadataService.metadataUrl(
+                String.format(
+                        "http://127.0.0.1:%d/repo/%s", server.getAddress().getPort(), repository),
+                "org.slf4j",
+                "slf4j-api");
+    }
+
+    private void respond(HttpExchange exchange, int status) throws IOException {
+        try {
+            respond.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        responses.add(status);
+        if (status != 200) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        try (var in = getClass().getClassLoader().getResourceAsStream("maven-metadata.xml")) {
+            var body = in.readAllBytes();
+            exchange.sendResponseHeaders(status, body.length);
+            try (var out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
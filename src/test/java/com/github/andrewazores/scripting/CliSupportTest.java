@@ -0,0 +1,95 @@
+/*
+ * Copyright Andrew Azores.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.andrewazores.scripting;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@DisabledOnOs(OS.WINDOWS)
+class CliSupportTest {
+
+    CliSupport cli;
+
+    @BeforeEach
+    void setup() {
+        cli = new CliSupport();
+        cli.timeout = Duration.ofSeconds(30);
+        cli.maxProcesses = 2;
+    }
+
+    @Test
+    void testDrainsBothStreams() throws Exception {
+        // more than a pipe buffer on stderr before anything on stdout
+        var result =
+                cli.script(
+                        "sh",
+                        "-c",
+                        "i=0; while [ $i -lt 20000 ]; do echo err$i >&2; i=$((i+1)); done; echo"
+                                + " out; exit 3");
+        MatcherAssert.assertThat(result.statusCode(), Matchers.equalTo(3));
+        MatcherAssert.assertThat(result.out(), Matchers.contains("out"));
+        MatcherAssert.assertThat(result.err(), Matchers.hasSize(20000));
+    }
+
+    @Test
+    void testTimeoutKillsProcessTree() throws Exception {
+        // the backgrounded sleep holds stdout open, so this only completes if it is killed too
+        var result = cli.scriptAsync(Duration.ofMillis(200), "sh", "-c", "sleep 30 & wait");
+        var e =
+                Assertions.assertThrows(
+                        ExecutionException.class, () -> result.get(10, TimeUnit.SECONDS));
+        MatcherAssert.assertThat(e.getCause(), Matchers.instanceOf(IOException.class));
+        MatcherAssert.assertThat(e.getCause().getMessage(), Matchers.containsString("timed out"));
+    }
+
+    @Test
+    void testLimitsConcurrentProcesses() throws Exception {
+        var results = new ArrayList<CompletableFuture<?>>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            results.add(cli.scriptAsync(Duration.ofSeconds(10), "sleep", "0.5"));
+        }
+        for (var result : results) {
+            result.get(10, TimeUnit.SECONDS);
+        }
+        // four commands, two at a time
+        MatcherAssert.assertThat(
+                Duration.ofNanos(System.nanoTime() - start),
+                Matchers.greaterThanOrEqualTo(Duration.ofMillis(1000)));
+    }
+
+    @Test
+    void testWhich() {
+        MatcherAssert.assertThat(cli.which("sh").isPresent(), Matchers.is(true));
+        MatcherAssert.assertThat(
+                cli.which("maven-gav-checker-no-such-command").isPresent(), Matchers.is(false));
+        Assertions.assertThrows(
+                UnavailableCommandException.class,
+                () -> cli.testCommand("maven-gav-checker-no-such-command"));
+    }
+}